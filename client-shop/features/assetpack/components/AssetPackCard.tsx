@@ -1,10 +1,10 @@
 "use client";
 
 import Image from "next/image";
-import type { AssetPackResponse } from "@/features/assetpack/types";
+import type { AssetPackListResponse } from "@/features/assetpack/types";
 
 interface AssetPackCardProps {
-    pack: AssetPackResponse;
+    pack: AssetPackListResponse;
     view?: "grid" | "list";
 }
 
@@ -94,9 +94,9 @@ export default function AssetPackCard({ pack, view = "grid" }: AssetPackCardProp
                     {pack.spriteCount} sprites
                 </div>
 
-                {pack.sprites.length > 0 && (
+                {pack.previewSprites.length > 0 && (
                     <div className="absolute bottom-0 inset-x-0 flex opacity-0 group-hover:opacity-100 transition-opacity duration-300 bg-black/70 backdrop-blur-sm p-1.5 gap-1.5">
-                        {pack.sprites.slice(0, 4).map((s) => (
+                        {pack.previewSprites.map((s) => (
                             <div
                                 key={s.id}
                                 className="w-8 h-8 rounded-md overflow-hidden shrink-0 relative"
@@ -114,9 +114,9 @@ export default function AssetPackCard({ pack, view = "grid" }: AssetPackCardProp
                                 />
                             </div>
                         ))}
-                        {pack.sprites.length > 4 && (
+                        {pack.spriteCount > pack.previewSprites.length && (
                             <div className="w-8 h-8 rounded-md bg-white/5 border border-white/10 flex items-center justify-center shrink-0">
-                                <span className="text-[9px] text-gray-400">+{pack.sprites.length - 4}</span>
+                                <span className="text-[9px] text-gray-400">+{pack.spriteCount - pack.previewSprites.length}</span>
                             </div>
                         )}
                     </div>
@@ -2,12 +2,12 @@
 
 import { useState } from "react";
 import AssetPackCard from "./AssetPackCard";
-import type { AssetPackResponse } from "@/features/assetpack/types";
+import type { AssetPackListResponse } from "@/features/assetpack/types";
 
 type ViewMode = "grid" | "list";
 
 interface AssetPackGridProps {
-    packs: AssetPackResponse[];
+    packs: AssetPackListResponse[];
     loading: boolean;
     error: string | null;
 }
@@ -2,7 +2,7 @@
 
 import { useState, useEffect } from "react";
 import { AssetPackService } from "../services/assetpack.service";
-import type { AssetPackFilterRequest, AssetPackResponse } from "@/features/assetpack/types";
+import type { AssetPackFilterRequest, AssetPackListResponse } from "@/features/assetpack/types";
 import type { PageResponse } from "@/features/shared/components/types";
 
 export function useAssetPacks(
@@ -10,7 +10,7 @@ export function useAssetPacks(
     page: number,
     size: number
 ) {
-    const [data, setData] = useState<PageResponse<AssetPackResponse> | null>(null);
+    const [data, setData] = useState<PageResponse<AssetPackListResponse> | null>(null);
     const [loading, setLoading] = useState(false);
     const [error, setError] = useState<string | null>(null);
 
@@ -1,5 +1,5 @@
 import { api } from "@/lib/axios";
-import type { AssetPackFilterRequest, AssetPackResponse } from "@/features/assetpack/types";
+import type { AssetPackFilterRequest, AssetPackListResponse, AssetPackResponse } from "@/features/assetpack/types";
 import type { ApiResponse, PageResponse } from "@/features/shared/components/types";
 import { normalizePage } from "@/features/shared/utils/page.utils";
 
@@ -8,9 +8,9 @@ export class AssetPackService {
         filter: AssetPackFilterRequest,
         page = 0,
         size = 12
-    ): Promise<PageResponse<AssetPackResponse>> {
+    ): Promise<PageResponse<AssetPackListResponse>> {
         try {
-            const response = await api.get<ApiResponse<PageResponse<AssetPackResponse>>>(
+            const response = await api.get<ApiResponse<PageResponse<AssetPackListResponse>>>(
                 "/asset-packs",
                 { params: { ...filter, page, size } }
             );
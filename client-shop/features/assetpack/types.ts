@@ -25,6 +25,20 @@ export interface AssetPackResponse {
     createdAt: string;
 }
 
+export interface AssetPackListResponse {
+    id: string;
+    name: string;
+    description: string;
+    price: number;
+    imageUrl: string;
+    spriteCount: number;
+    previewSprites: SpriteInfo[];
+    categoryIds: string[];
+    categoryNames: string[];
+    createdBy: string;
+    createdAt: string;
+}
+
 export interface AssetPackFilterRequest {
     keyword?: string;
     categoryIds?: string[];
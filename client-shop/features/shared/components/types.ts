@@ -10,6 +10,8 @@ export interface PageResponse<T> {
     size: number;
     totalElements: number;
     totalPages: number;
+    // Set on count=none responses, which carry no totals
+    hasNext?: boolean;
 
     page?: {
         size: number;
@@ -8,6 +8,7 @@ export function normalizePage<T>(data: PageResponse<T>): PageResponse<T> {
             size: data.page.size,
             totalElements: data.page.totalElements,
             totalPages: data.page.totalPages,
+            hasNext: data.page.number + 1 < data.page.totalPages,
         };
     }
     return data;
@@ -149,6 +149,7 @@ export default function SpriteDetail({
         name: sprite.name,
         slug: sprite.slug,
         imageUrl: sprite.imageUrl,
+        status: sprite.status,
         createdAt: sprite.createdAt,
     };
 
@@ -4,6 +4,7 @@ import type {
     SpriteResponse,
     SpriteFilterRequest,
     SpriteListResponse,
+    SpriteBatchResult,
 } from "@/features/sprite/types";
 import type { ApiResponse, PageResponse } from "@/features/shared/components/types";
 import { normalizePage } from "@/features/shared/utils/page.utils";
@@ -145,6 +146,28 @@ export class SpriteService {
         }
     }
 
+    static async deleteByIds(ids: string[]): Promise<SpriteBatchResult> {
+        return this.runBatch("delete", ids);
+    }
+
+    static async restoreByIds(ids: string[]): Promise<SpriteBatchResult> {
+        return this.runBatch("restore", ids);
+    }
+
+    static async hardDeleteByIds(ids: string[]): Promise<SpriteBatchResult> {
+        return this.runBatch("permanent-delete", ids);
+    }
+
+    private static async runBatch(action: string, ids: string[]): Promise<SpriteBatchResult> {
+        try {
+            const response = await api.post<ApiResponse<SpriteBatchResult>>(`/sprites/batch/${action}`, { ids });
+            if (!response.data.success) throw new Error(response.data.message);
+            return response.data.data;
+        } catch (error: any) {
+            throw new Error(error.response?.data?.message ?? error.message);
+        }
+    }
+
     private static buildFormData(data: SpriteRequest, image?: File): FormData {
         const formData = new FormData();
         formData.append(
@@ -8,6 +8,7 @@ export interface SpriteListResponse {
   name: string;
   slug: string;
   imageUrl: string;
+  status: 'PROCESSING' | 'READY' | 'FAILED';
   createdAt: string;
   deletedAt?: string | null;
 }
@@ -17,16 +18,22 @@ export interface SpriteResponse {
     name: string;
     slug: string;
     imageUrl: string;
+    status: 'PROCESSING' | 'READY' | 'FAILED';
     categoryIds: string[];
     categoryNames: string[];
     createdBy: string;
     createdAt: string;
 }
 
+export interface SpriteBatchResult {
+    requested: number;
+    affected: number;
+}
+
 export interface SpriteFilterRequest {
     categoryIds?: string[];   
     keyword?: string;
-    sortBy?: 'price' | 'createdAt';
+    sortBy?: 'createdAt' | 'name' | 'relevance';
     sortOrder?: 'asc' | 'desc';
 }
 
@@ -1,16 +1,18 @@
 package pixelart.shop.features.assetpack;
 
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 import pixelart.shop.features.assetpack.dto.AssetPackFilterRequest;
+import pixelart.shop.features.assetpack.dto.AssetPackListResponse;
 import pixelart.shop.features.assetpack.dto.AssetPackRequest;
 import pixelart.shop.features.assetpack.dto.AssetPackResponse;
-import pixelart.shop.features.user.entity.User;
+import pixelart.shop.features.auth.principal.AuthenticatedUser;
+import pixelart.shop.shared.dto.CountMode;
 import pixelart.shop.shared.response.ApiResponse;
 
 import java.io.IOException;
@@ -24,13 +26,14 @@ public class AssetPackController {
     private final AssetPackService assetPackService;
 
     @GetMapping
-    public ResponseEntity<ApiResponse<Page<AssetPackResponse>>> getAll(
+    public ResponseEntity<ApiResponse<Slice<AssetPackListResponse>>> getAll(
             AssetPackFilterRequest filter,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "12") int size
+            @RequestParam(defaultValue = "12") int size,
+            @RequestParam(defaultValue = "exact") String count
     ) {
         return ResponseEntity.ok(
-                ApiResponse.success(assetPackService.getAll(filter, page, size))
+                ApiResponse.success(assetPackService.getAll(filter, page, size, CountMode.from(count)))
         );
     }
 
@@ -47,7 +50,7 @@ public class AssetPackController {
     public ResponseEntity<ApiResponse<AssetPackResponse>> create(
             @RequestPart("data") AssetPackRequest request,
             @RequestPart("image") MultipartFile image,
-            @AuthenticationPrincipal User currentUser
+            @AuthenticationPrincipal AuthenticatedUser currentUser
     ) throws IOException {
         return ResponseEntity.ok(
                 ApiResponse.success(assetPackService.create(request, image, currentUser))
@@ -7,25 +7,38 @@ import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.*;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 import pixelart.shop.features.assetpack.dto.AssetPackFilterRequest;
+import pixelart.shop.features.assetpack.dto.AssetPackListResponse;
 import pixelart.shop.features.assetpack.dto.AssetPackRequest;
 import pixelart.shop.features.assetpack.dto.AssetPackResponse;
 import pixelart.shop.features.assetpack.entity.AssetPack;
+import pixelart.shop.features.assetpack.repository.AssetPackCategoryRow;
 import pixelart.shop.features.assetpack.repository.AssetPackRepository;
 import pixelart.shop.features.assetpack.repository.AssetPackSpecification;
+import pixelart.shop.features.assetpack.repository.AssetPackSpritePreviewRow;
+import pixelart.shop.features.auth.principal.AuthenticatedUser;
 import pixelart.shop.features.sprite.entity.Sprite;
 import pixelart.shop.features.sprite.repository.SpriteRepository;
-import pixelart.shop.features.user.entity.User;
-import pixelart.shop.shared.dto.RestPage;
+import pixelart.shop.features.upload.ImageUploader;
+import pixelart.shop.features.user.repository.UserRepository;
+import pixelart.shop.shared.dto.CountMode;
 import pixelart.shop.shared.exception.AppException;
+import pixelart.shop.shared.infrastructure.pagination.PageCounter;
 import pixelart.shop.shared.infrastructure.storage.FileStorage;
 import pixelart.shop.shared.infrastructure.storage.UploadResult;
+import pixelart.shop.shared.util.SearchUtil;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Service
@@ -33,19 +46,34 @@ import java.util.UUID;
 @Transactional
 public class AssetPackServiceImpl implements AssetPackService {
 
+    private static final String RELEVANCE_SORT = "relevance";
+    private static final int PREVIEW_SPRITES = 4;
+
     private final AssetPackRepository assetPackRepository;
     private final SpriteRepository spriteRepository;
+    private final UserRepository userRepository;
     private final FileStorage fileStorage;
+    private final ImageUploader imageUploader;
+    private final TransactionTemplate transactionTemplate;
+    private final PageCounter pageCounter;
 
     @Override
     @Transactional(readOnly = true)
     @Cacheable(
             value = "asset-packs",
-            key = "{#filter.keyword, #filter.categoryIds, #filter.minPrice, #filter.maxPrice, #filter.sortBy, #filter.sortOrder, #page, #size}"
+            key = "{#filter.keyword, #filter.categoryIds, #filter.minPrice, #filter.maxPrice, #filter.sortBy, #filter.sortOrder, #page, #size, #count}",
+            sync = true
     )
-    public Page<AssetPackResponse> getAll(AssetPackFilterRequest filter, int page, int size) {
+    public Slice<AssetPackListResponse> getAll(AssetPackFilterRequest filter, int page, int size, CountMode count) {
+        boolean byRelevance = RELEVANCE_SORT.equals(filter.sortBy());
+
         Sort sort = Sort.unsorted();
-        if (filter.sortBy() != null && !filter.sortBy().isBlank()) {
+        if (byRelevance) {
+            // Ordering comes from the specification; without a keyword fall back to newest first
+            if (!SearchUtil.hasKeyword(filter.keyword())) {
+                sort = Sort.by(Sort.Direction.DESC, "createdAt");
+            }
+        } else if (filter.sortBy() != null && !filter.sortBy().isBlank()) {
             Sort.Direction direction = "desc".equalsIgnoreCase(filter.sortOrder())
                     ? Sort.Direction.DESC
                     : Sort.Direction.ASC;
@@ -59,17 +87,35 @@ public class AssetPackServiceImpl implements AssetPackService {
                 filter.minPrice(),
                 filter.maxPrice()
         );
+        if (byRelevance && SearchUtil.hasKeyword(filter.keyword())) {
+            spec = spec.and(AssetPackSpecification.orderByRelevance(filter.keyword()));
+        }
 
-        Page<AssetPackResponse> result = assetPackRepository.findAll(spec, pageable)
-                .map(AssetPackResponse::from);
-        return new RestPage<>(result.getContent(), result.getNumber(), result.getSize(), result.getTotalElements());
+        Specification<AssetPack> listingSpec = spec;
+        Slice<AssetPack> packs = assetPackRepository.findBy(listingSpec, q -> q.project("createdBy").slice(pageable));
+        String countKey = String.join("|",
+                "asset-packs",
+                String.valueOf(filter.keyword()),
+                String.valueOf(filter.categoryIds().stream().sorted().toList()),
+                String.valueOf(filter.minPrice()),
+                String.valueOf(filter.maxPrice())
+        );
+
+        return pageCounter.complete(
+                new SliceImpl<>(toListResponses(packs.getContent()), pageable, packs.hasNext()),
+                pageable,
+                count,
+                countKey,
+                () -> assetPackRepository.count(listingSpec)
+        );
     }
 
     @Override
     @Transactional(readOnly = true)
     @Cacheable(
             value = "asset-packs:detail",
-            key = "#id"
+            key = "#id",
+            sync = true
     )
     public AssetPackResponse getById(UUID id) {
         return assetPackRepository
@@ -79,49 +125,63 @@ public class AssetPackServiceImpl implements AssetPackService {
     }
 
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     @CacheEvict(value = {"asset-packs", "asset-packs:detail"}, allEntries = true)
-    public AssetPackResponse create(AssetPackRequest request, MultipartFile image, User currentUser) throws IOException {
-        List<Sprite> sprites = resolveSprites(request.spriteIds());
-
-        UploadResult uploadResult = uploadImage(image);
-
-        AssetPack pack = AssetPack.builder()
-                .name(request.name())
-                .description(request.description())
-                .price(request.price())
-                .imageUrl(uploadResult.url())
-                .cloudinaryId(uploadResult.publicId())
-                .sprites(sprites)
-                .createdBy(currentUser)
-                .build();
-
-        return AssetPackResponse.from(assetPackRepository.save(pack));
+    public AssetPackResponse create(AssetPackRequest request, MultipartFile image, AuthenticatedUser currentUser) throws IOException {
+        UploadResult uploadResult = stageImage(image);
+
+        return writeWithImage(uploadResult, status -> {
+            List<Sprite> sprites = resolveSprites(request.spriteIds());
+
+            AssetPack pack = AssetPack.builder()
+                    .name(request.name())
+                    .description(request.description())
+                    .price(request.price())
+                    .imageUrl(uploadResult.url())
+                    .cloudinaryId(uploadResult.publicId())
+                    .sprites(sprites)
+                    .createdBy(userRepository.getReferenceById(currentUser.id()))
+                    .build();
+
+            AssetPackResponse response = AssetPackResponse.from(assetPackRepository.save(pack));
+            imageUploader.confirm(uploadResult.publicId());
+            return response;
+        });
     }
 
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     @CacheEvict(value = {"asset-packs", "asset-packs:detail"}, allEntries = true)
     public AssetPackResponse update(UUID id, AssetPackRequest request, MultipartFile image) throws IOException {
-        AssetPack pack = assetPackRepository
-                .findById(id)
-                .orElseThrow(() -> AppException.notFound("Asset pack does not exist"));
+        UploadResult uploadResult = image != null && !image.isEmpty() ? stageImage(image) : null;
+        AtomicReference<String> replacedImage = new AtomicReference<>();
+
+        AssetPackResponse response = writeWithImage(uploadResult, status -> {
+            AssetPack pack = assetPackRepository
+                    .findById(id)
+                    .orElseThrow(() -> AppException.notFound("Asset pack does not exist"));
 
-        List<Sprite> sprites = resolveSprites(request.spriteIds());
+            List<Sprite> sprites = resolveSprites(request.spriteIds());
 
-        if (image != null && !image.isEmpty()) {
-            if (pack.getCloudinaryId() != null) {
-                deleteImage(pack.getCloudinaryId());
+            if (uploadResult != null) {
+                replacedImage.set(pack.getCloudinaryId());
+                pack.setImageUrl(uploadResult.url());
+                pack.setCloudinaryId(uploadResult.publicId());
+                imageUploader.confirm(uploadResult.publicId());
             }
-            UploadResult uploadResult = uploadImage(image);
-            pack.setImageUrl(uploadResult.url());
-            pack.setCloudinaryId(uploadResult.publicId());
-        }
 
-        pack.setName(request.name());
-        pack.setDescription(request.description());
-        pack.setPrice(request.price());
-        pack.setSprites(sprites);
+            pack.setName(request.name());
+            pack.setDescription(request.description());
+            pack.setPrice(request.price());
+            pack.setSprites(sprites);
+
+            return AssetPackResponse.from(assetPackRepository.save(pack));
+        });
 
-        return AssetPackResponse.from(assetPackRepository.save(pack));
+        if (replacedImage.get() != null) {
+            deleteImage(replacedImage.get());
+        }
+        return response;
     }
 
     @Override
@@ -134,6 +194,29 @@ public class AssetPackServiceImpl implements AssetPackService {
         assetPackRepository.save(pack);
     }
 
+    // Sprites and categories for the whole page in two set-based queries instead of lazy loads per pack
+    private List<AssetPackListResponse> toListResponses(List<AssetPack> packs) {
+        if (packs.isEmpty()) {
+            return List.of();
+        }
+
+        List<UUID> packIds = packs.stream().map(AssetPack::getId).toList();
+        Map<UUID, List<AssetPackSpritePreviewRow>> previews = assetPackRepository
+                .findSpritePreviews(packIds, PREVIEW_SPRITES).stream()
+                .collect(Collectors.groupingBy(AssetPackSpritePreviewRow::getAssetPackId));
+        Map<UUID, List<AssetPackCategoryRow>> categories = assetPackRepository
+                .findCategories(packIds).stream()
+                .collect(Collectors.groupingBy(AssetPackCategoryRow::getAssetPackId));
+
+        return packs.stream()
+                .map(pack -> AssetPackListResponse.from(
+                        pack,
+                        previews.getOrDefault(pack.getId(), List.of()),
+                        categories.getOrDefault(pack.getId(), List.of())
+                ))
+                .toList();
+    }
+
     private List<Sprite> resolveSprites(List<UUID> spriteIds) {
         if (spriteIds == null || spriteIds.isEmpty()) {
             throw AppException.badRequest("At least one sprite is required");
@@ -145,11 +228,23 @@ public class AssetPackServiceImpl implements AssetPackService {
         return sprites;
     }
 
-    private UploadResult uploadImage(MultipartFile file) throws IOException {
+    private UploadResult stageImage(MultipartFile file) throws IOException {
         if (file == null || file.isEmpty()) {
             throw AppException.badRequest("Image is required");
         }
-        return fileStorage.upload(file.getBytes(), "asset-packs");
+        return imageUploader.stage(file, "asset-packs");
+    }
+
+    // The image is uploaded before any transaction opens; if the write fails the staged image is discarded
+    private <T> T writeWithImage(UploadResult staged, TransactionCallback<T> write) {
+        try {
+            return transactionTemplate.execute(write);
+        } catch (RuntimeException e) {
+            if (staged != null) {
+                imageUploader.discard(staged.publicId());
+            }
+            throw e;
+        }
     }
 
     private void deleteImage(String publicId) {
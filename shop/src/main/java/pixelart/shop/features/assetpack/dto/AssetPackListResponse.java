@@ -0,0 +1,46 @@
+package pixelart.shop.features.assetpack.dto;
+
+import pixelart.shop.features.assetpack.entity.AssetPack;
+import pixelart.shop.features.assetpack.repository.AssetPackCategoryRow;
+import pixelart.shop.features.assetpack.repository.AssetPackSpritePreviewRow;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+public record AssetPackListResponse(
+        UUID id,
+        String name,
+        String description,
+        BigDecimal price,
+        String imageUrl,
+        int spriteCount,
+        List<SpriteInfo> previewSprites,
+        List<UUID> categoryIds,
+        List<String> categoryNames,
+        String createdBy,
+        LocalDateTime createdAt
+) {
+    public static AssetPackListResponse from(
+            AssetPack pack,
+            List<AssetPackSpritePreviewRow> previews,
+            List<AssetPackCategoryRow> categories
+    ) {
+        return new AssetPackListResponse(
+                pack.getId(),
+                pack.getName(),
+                pack.getDescription(),
+                pack.getPrice(),
+                pack.getImageUrl(),
+                previews.isEmpty() ? 0 : (int) previews.get(0).getSpriteCount(),
+                previews.stream()
+                        .map(p -> new SpriteInfo(p.getSpriteId(), p.getName(), p.getImageUrl()))
+                        .toList(),
+                categories.stream().map(AssetPackCategoryRow::getCategoryId).toList(),
+                categories.stream().map(AssetPackCategoryRow::getCategoryName).toList(),
+                pack.getCreatedBy().getNickname(),
+                pack.getCreatedAt()
+        );
+    }
+}
@@ -0,0 +1,12 @@
+package pixelart.shop.features.assetpack.repository;
+
+import java.util.UUID;
+
+public interface AssetPackCategoryRow {
+
+    UUID getAssetPackId();
+
+    UUID getCategoryId();
+
+    String getCategoryName();
+}
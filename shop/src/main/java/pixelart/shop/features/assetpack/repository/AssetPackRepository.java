@@ -10,6 +10,8 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import pixelart.shop.features.assetpack.entity.AssetPack;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -21,4 +23,37 @@ public interface AssetPackRepository extends JpaRepository<AssetPack, UUID>, Jpa
     Optional<AssetPack> findByIdAndActive(UUID id);
 
     Page<AssetPack> findAll(Specification<AssetPack> spec, Pageable pageable);
+
+    // First :limit sprites of each pack plus the pack's total sprite count, in one pass over the join table
+    @Query(value = """
+            SELECT ranked.asset_pack_id AS assetPackId,
+                   ranked.sprite_id     AS spriteId,
+                   ranked.name          AS name,
+                   ranked.image_url     AS imageUrl,
+                   ranked.sprite_count  AS spriteCount
+            FROM (
+                SELECT aps.asset_pack_id,
+                       s.id AS sprite_id,
+                       s.name,
+                       s.image_url,
+                       row_number() OVER (PARTITION BY aps.asset_pack_id ORDER BY s.created_at, s.id) AS rn,
+                       count(*) OVER (PARTITION BY aps.asset_pack_id) AS sprite_count
+                FROM asset_pack_sprites aps
+                JOIN sprites s ON s.id = aps.sprite_id
+                WHERE aps.asset_pack_id IN (:packIds)
+            ) ranked
+            WHERE ranked.rn <= :limit
+            ORDER BY ranked.asset_pack_id, ranked.rn
+            """, nativeQuery = true)
+    List<AssetPackSpritePreviewRow> findSpritePreviews(Collection<UUID> packIds, int limit);
+
+    @Query("""
+            SELECT DISTINCT a.id AS assetPackId, c.id AS categoryId, c.name AS categoryName
+            FROM AssetPack a
+            JOIN a.sprites s
+            JOIN s.categories c
+            WHERE a.id IN :packIds
+            ORDER BY c.name
+            """)
+    List<AssetPackCategoryRow> findCategories(Collection<UUID> packIds);
 }
\ No newline at end of file
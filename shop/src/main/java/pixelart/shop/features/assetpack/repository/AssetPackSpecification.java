@@ -5,6 +5,7 @@ import org.springframework.data.jpa.domain.Specification;
 import pixelart.shop.features.assetpack.entity.AssetPack;
 import pixelart.shop.features.category.entity.Category;
 import pixelart.shop.features.sprite.entity.Sprite;
+import pixelart.shop.shared.util.SearchUtil;
 
 import java.math.BigDecimal;
 import java.util.List;
@@ -24,11 +25,10 @@ public class AssetPackSpecification {
 
             predicate = cb.and(predicate, cb.isNull(root.get("deletedAt")));
 
-            if (keyword != null && !keyword.isBlank()) {
-                String pattern = "%" + keyword.toLowerCase() + "%";
+            if (SearchUtil.hasKeyword(keyword)) {
                 predicate = cb.and(predicate, cb.or(
-                        cb.like(cb.lower(root.get("name")), pattern),
-                        cb.like(cb.lower(root.get("description")), pattern)
+                        SearchUtil.contains(cb, root.get("name"), keyword),
+                        SearchUtil.contains(cb, root.get("description"), keyword)
                 ));
             }
 
@@ -57,4 +57,19 @@ public class AssetPackSpecification {
             return predicate;
         };
     }
-}
\ No newline at end of file
+
+    public static Specification<AssetPack> orderByRelevance(String keyword) {
+        return (root, query, cb) -> {
+            // Skipped for the page count query; name matches outrank description-only matches
+            if (!Long.class.equals(query.getResultType())) {
+                query.orderBy(
+                        cb.desc(SearchUtil.similarity(cb, root.get("name"), keyword)),
+                        cb.desc(SearchUtil.similarity(cb, cb.coalesce(root.get("description"), ""), keyword)),
+                        cb.desc(root.get("createdAt")),
+                        cb.asc(root.get("id"))
+                );
+            }
+            return cb.conjunction();
+        };
+    }
+}
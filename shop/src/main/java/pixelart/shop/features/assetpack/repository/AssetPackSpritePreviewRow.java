@@ -0,0 +1,16 @@
+package pixelart.shop.features.assetpack.repository;
+
+import java.util.UUID;
+
+public interface AssetPackSpritePreviewRow {
+
+    UUID getAssetPackId();
+
+    UUID getSpriteId();
+
+    String getName();
+
+    String getImageUrl();
+
+    long getSpriteCount();
+}
@@ -4,11 +4,12 @@ import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 import pixelart.shop.features.auth.dto.*;
+import pixelart.shop.features.auth.principal.AuthenticatedUser;
+import pixelart.shop.features.user.UserService;
 import pixelart.shop.features.user.dto.UserDto;
-import pixelart.shop.features.user.entity.User;
 import pixelart.shop.shared.response.ApiResponse;
 import pixelart.shop.shared.util.CookieUtil;
 
@@ -18,6 +19,7 @@ import pixelart.shop.shared.util.CookieUtil;
 public class AuthController {
 
     private final AuthService authService;
+    private final UserService userService;
 
     @PostMapping("/register/send-otp")
     public ResponseEntity<ApiResponse<String>> sendRegistrationOtp(
@@ -85,9 +87,8 @@ public class AuthController {
     @PostMapping("/setup-password")
     public ResponseEntity<ApiResponse<UserDto>> setupPassword(
             @Valid @RequestBody SetupPasswordRequest request,
-            Authentication authentication) {
+            @AuthenticationPrincipal AuthenticatedUser currentUser) {
 
-        User currentUser = (User) authentication.getPrincipal();
         UserDto userDto = authService.setupPassword(currentUser, request.getPassword());
 
         return ResponseEntity.ok(
@@ -156,12 +157,10 @@ public class AuthController {
     }
 
     @GetMapping("/me")
-    public ResponseEntity<ApiResponse<UserDto>> me(Authentication authentication) {
-
-        User user = (User) authentication.getPrincipal();
+    public ResponseEntity<ApiResponse<UserDto>> me(@AuthenticationPrincipal AuthenticatedUser currentUser) {
 
         return ResponseEntity.ok(
-                ApiResponse.success(UserDto.from(user))
+                ApiResponse.success(userService.getMe(currentUser))
         );
     }
 }
\ No newline at end of file
@@ -1,6 +1,7 @@
 package pixelart.shop.features.auth;
 
 import pixelart.shop.features.auth.dto.*;
+import pixelart.shop.features.auth.principal.AuthenticatedUser;
 import pixelart.shop.features.user.dto.UserDto;
 import pixelart.shop.features.user.entity.User;
 
@@ -9,7 +10,7 @@ public interface AuthService {
     void sendResetPasswordOtp(String email);
     AuthResponse register(RegisterRequest request);
     AuthResponse resetPassword(ResetPasswordRequest request);
-    UserDto setupPassword(User currentUser, String password);
+    UserDto setupPassword(AuthenticatedUser currentUser, String password);
     AuthResponse login(LoginRequest request);
     AuthResponse refreshToken(RefreshTokenRequest request);
     void logout(String refreshToken);
@@ -1,7 +1,6 @@
 package pixelart.shop.features.auth;
 
 import lombok.RequiredArgsConstructor;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -9,18 +8,17 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import pixelart.shop.features.auth.dto.*;
 import pixelart.shop.features.auth.event.UserRegisteredEvent;
+import pixelart.shop.features.auth.principal.AuthenticatedUser;
 import pixelart.shop.features.otp.OtpService;
+import pixelart.shop.features.user.cache.UserPrincipalCache;
 import pixelart.shop.features.user.dto.UserDto;
-import pixelart.shop.features.user.entity.RefreshToken;
 import pixelart.shop.features.user.entity.User;
 import pixelart.shop.features.user.entity.UserAuthProvider;
-import pixelart.shop.features.user.repository.RefreshTokenRepository;
 import pixelart.shop.features.user.repository.UserAuthProviderRepository;
 import pixelart.shop.features.user.repository.UserRepository;
 import pixelart.shop.shared.exception.AppException;
 import pixelart.shop.shared.util.JwtUtil;
 
-import java.time.LocalDateTime;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -31,14 +29,12 @@ public class AuthServiceImpl implements AuthService {
 
     private final UserRepository userRepository;
     private final UserAuthProviderRepository providerRepository;
-    private final RefreshTokenRepository refreshTokenRepository;
+    private final RefreshTokenStore refreshTokenStore;
     private final OtpService otpService;
     private final PasswordEncoder passwordEncoder;
     private final JwtUtil jwtUtil;
     private final ApplicationEventPublisher eventPublisher;
-
-    @Value("${shop.jwt.refresh-expiration}")
-    private long refreshExpiration;
+    private final UserPrincipalCache userPrincipalCache;
 
     @Override
     public void sendRegistrationOtp(String email) {
@@ -107,6 +103,7 @@ public class AuthServiceImpl implements AuthService {
             );
             existingUser.setFullName(request.getFullName());
             userRepository.save(existingUser);
+            userPrincipalCache.evictAfterCommit(existingUser.getId());
 
             UserAuthProvider localProvider =
                     UserAuthProvider.builder()
@@ -185,6 +182,7 @@ public class AuthServiceImpl implements AuthService {
         }
 
         userRepository.save(user);
+        userPrincipalCache.evictAfterCommit(user.getId());
 
         return buildAuthResponse(user);
     }
@@ -229,11 +227,11 @@ public class AuthServiceImpl implements AuthService {
     }
 
     @Override
-    public UserDto setupPassword(User currentUser, String password) {
+    public UserDto setupPassword(AuthenticatedUser currentUser, String password) {
 
         boolean hasLocal = providerRepository
                 .existsByUserIdAndProvider(
-                        currentUser.getId(),
+                        currentUser.id(),
                         UserAuthProvider.Provider.LOCAL
                 );
 
@@ -241,18 +239,22 @@ public class AuthServiceImpl implements AuthService {
             throw AppException.conflict("Password already set. Use reset password to change it.");
         }
 
-        currentUser.setPassword(passwordEncoder.encode(password));
-        userRepository.save(currentUser);
+        User user = userRepository.findById(currentUser.id())
+                .orElseThrow(() -> AppException.notFound("User does not exist"));
+
+        user.setPassword(passwordEncoder.encode(password));
+        userRepository.save(user);
+        userPrincipalCache.evictAfterCommit(user.getId());
 
         UserAuthProvider localProvider = UserAuthProvider.builder()
-                .user(currentUser)
+                .user(user)
                 .provider(UserAuthProvider.Provider.LOCAL)
-                .providerId(currentUser.getEmail())
+                .providerId(user.getEmail())
                 .build();
 
         providerRepository.save(localProvider);
 
-        return UserDto.from(currentUser);
+        return UserDto.from(user);
     }
 
     @Override
@@ -263,43 +265,43 @@ public class AuthServiceImpl implements AuthService {
             throw AppException.unauthorized("Token is invalid");
         }
 
-        RefreshToken storedToken = refreshTokenRepository.findByToken(token)
-                .orElseThrow(() -> AppException.unauthorized("Token doesn't exist"));
+        RefreshTokenStore.Consumed consumed = refreshTokenStore.consume(token);
+
+        if (consumed.status() == RefreshTokenStore.Status.UNKNOWN) {
+            throw AppException.unauthorized("Token doesn't exist");
+        }
 
-        if (storedToken.isRevoked()) {
-            refreshTokenRepository.revokeAllByUserId(storedToken.getUser().getId());
+        if (consumed.status() == RefreshTokenStore.Status.REUSED) {
+            refreshTokenStore.revokeAll(consumed.userId());
             throw AppException.unauthorized("Token has been revoked. Please login again");
         }
 
-        if (storedToken.getExpiresAt().isBefore(LocalDateTime.now())) {
+        if (consumed.status() == RefreshTokenStore.Status.EXPIRED) {
             throw AppException.unauthorized("Token has expired. Please login again");
         }
 
-        storedToken.setRevoked(true);
-        refreshTokenRepository.save(storedToken);
+        User user = userRepository.findById(consumed.userId())
+                .orElseThrow(() -> AppException.unauthorized("Token doesn't exist"));
 
-        return buildAuthResponse(storedToken.getUser());
+        return buildAuthResponse(user);
     }
 
     @Override
     public void logout(String refreshToken) {
-        refreshTokenRepository.findByToken(refreshToken).ifPresent(token -> {
-            token.setRevoked(true);
-            refreshTokenRepository.save(token);
-        });
+        refreshTokenStore.revoke(refreshToken);
     }
 
     @Override
     public AuthResponse buildAuthResponse(User user) {
+        // Access tokens are trusted without a user lookup, so disabled accounts must not get new ones
+        if (!user.isEnabled()) {
+            throw AppException.forbidden("Account has been disabled");
+        }
+
         String accessToken       = jwtUtil.generateAccessToken(user);
         String refreshTokenValue = jwtUtil.generateRefreshToken(user);
 
-        RefreshToken refreshToken = RefreshToken.builder()
-                .token(refreshTokenValue)
-                .user(user)
-                .expiresAt(LocalDateTime.now().plusSeconds(refreshExpiration / 1000))
-                .build();
-        refreshTokenRepository.save(refreshToken);
+        refreshTokenStore.save(user.getId(), refreshTokenValue);
 
         return AuthResponse.builder()
                 .accessToken(accessToken)
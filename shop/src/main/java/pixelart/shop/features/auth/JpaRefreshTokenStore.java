@@ -0,0 +1,78 @@
+package pixelart.shop.features.auth;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import pixelart.shop.features.user.entity.RefreshToken;
+import pixelart.shop.features.user.repository.RefreshTokenRepository;
+import pixelart.shop.features.user.repository.UserRepository;
+import pixelart.shop.shared.util.HashUtil;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// Keeps tokens in the refresh_tokens table. The store for deployments without Redis, and the fallback
+// RedisRefreshTokenStore reads for tokens issued before it was enabled
+@Service(JpaRefreshTokenStore.NAME)
+@RequiredArgsConstructor
+@Transactional
+public class JpaRefreshTokenStore implements RefreshTokenStore {
+
+    public static final String NAME = "jpaRefreshTokenStore";
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final UserRepository userRepository;
+
+    @Value("${shop.jwt.refresh-expiration}")
+    private long refreshExpiration;
+
+    @Override
+    public void save(UUID userId, String token) {
+        refreshTokenRepository.save(RefreshToken.builder()
+                .tokenHash(HashUtil.sha256(token))
+                .user(userRepository.getReferenceById(userId))
+                .expiresAt(LocalDateTime.now().plusSeconds(refreshExpiration / 1000))
+                .build());
+    }
+
+    @Override
+    public Consumed consume(String token) {
+        RefreshToken stored = refreshTokenRepository.findByTokenHash(HashUtil.sha256(token)).orElse(null);
+        if (stored == null) {
+            return new Consumed(Status.UNKNOWN, null);
+        }
+
+        UUID userId = stored.getUser().getId();
+        if (stored.isRevoked()) {
+            return new Consumed(Status.REUSED, userId);
+        }
+        if (stored.getExpiresAt().isBefore(LocalDateTime.now())) {
+            return new Consumed(Status.EXPIRED, userId);
+        }
+
+        markRevoked(stored);
+        return new Consumed(Status.ROTATED, userId);
+    }
+
+    @Override
+    public void revoke(String token) {
+        refreshTokenRepository.findByTokenHash(HashUtil.sha256(token))
+                .filter(stored -> !stored.isRevoked())
+                .ifPresent(this::markRevoked);
+    }
+
+    // Reuse is reported by throwing from the caller's transaction, so the revocation must commit on its own
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void revokeAll(UUID userId) {
+        refreshTokenRepository.revokeAllByUserId(userId, LocalDateTime.now());
+    }
+
+    private void markRevoked(RefreshToken stored) {
+        stored.setRevoked(true);
+        stored.setRevokedAt(LocalDateTime.now());
+        refreshTokenRepository.save(stored);
+    }
+}
@@ -0,0 +1,115 @@
+package pixelart.shop.features.auth;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+import pixelart.shop.shared.util.HashUtil;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+// auth:refresh:{sha256} -> "userId" while live, "!userId" once rotated (kept until its TTL so reuse is detected).
+// auth:refresh-family:{userId} holds the digests of the user's live tokens for revokeAll.
+// Tokens Redis does not know are looked up in refresh_tokens, so sessions issued before the switch keep
+// refreshing (and move over to Redis on rotation) until those rows expire.
+@Service
+@Primary
+@ConditionalOnProperty(name = "shop.auth.refresh-token-store", havingValue = "redis", matchIfMissing = true)
+public class RedisRefreshTokenStore implements RefreshTokenStore {
+
+    private static final String TOKEN_PREFIX = "auth:refresh:";
+    private static final String FAMILY_PREFIX = "auth:refresh-family:";
+    private static final String ROTATED_MARK = "!";
+
+    private static final RedisScript<Long> SAVE_SCRIPT = new DefaultRedisScript<>(
+            "redis.call('set', KEYS[1], ARGV[1], 'px', ARGV[3]) "
+                    + "redis.call('sadd', KEYS[2], ARGV[2]) "
+                    + "redis.call('pexpire', KEYS[2], ARGV[3]) "
+                    + "return 1",
+            Long.class
+    );
+
+    // Marks the token rotated in place (keeping its TTL) and returns the previous value
+    private static final RedisScript<String> CONSUME_SCRIPT = new DefaultRedisScript<>(
+            "local value = redis.call('get', KEYS[1]) "
+                    + "if value and string.sub(value, 1, 1) ~= '" + ROTATED_MARK + "' then "
+                    + "redis.call('set', KEYS[1], '" + ROTATED_MARK + "' .. value, 'keepttl') "
+                    + "end "
+                    + "return value",
+            String.class
+    );
+
+    private final StringRedisTemplate redisTemplate;
+    private final RefreshTokenStore legacyStore;
+    private final long ttl;
+
+    public RedisRefreshTokenStore(
+            StringRedisTemplate redisTemplate,
+            @Qualifier(JpaRefreshTokenStore.NAME) RefreshTokenStore legacyStore,
+            @Value("${shop.jwt.refresh-expiration}") long ttl
+    ) {
+        this.redisTemplate = redisTemplate;
+        this.legacyStore = legacyStore;
+        this.ttl = ttl;
+    }
+
+    @Override
+    public void save(UUID userId, String token) {
+        String digest = HashUtil.sha256Hex(token);
+        redisTemplate.execute(
+                SAVE_SCRIPT,
+                List.of(TOKEN_PREFIX + digest, FAMILY_PREFIX + userId),
+                userId.toString(), digest, Long.toString(ttl)
+        );
+    }
+
+    @Override
+    public Consumed consume(String token) {
+        String digest = HashUtil.sha256Hex(token);
+        String value = redisTemplate.execute(CONSUME_SCRIPT, List.of(TOKEN_PREFIX + digest));
+        if (value == null) {
+            return legacyStore.consume(token);
+        }
+        if (value.startsWith(ROTATED_MARK)) {
+            return new Consumed(Status.REUSED, UUID.fromString(value.substring(ROTATED_MARK.length())));
+        }
+
+        // The rotated marker only needs its own TTL, keep the family down to live tokens
+        redisTemplate.opsForSet().remove(FAMILY_PREFIX + value, digest);
+        return new Consumed(Status.ROTATED, UUID.fromString(value));
+    }
+
+    @Override
+    public void revoke(String token) {
+        String digest = HashUtil.sha256Hex(token);
+        String value = redisTemplate.opsForValue().getAndDelete(TOKEN_PREFIX + digest);
+        if (value == null) {
+            legacyStore.revoke(token);
+            return;
+        }
+
+        String userId = value.startsWith(ROTATED_MARK) ? value.substring(ROTATED_MARK.length()) : value;
+        redisTemplate.opsForSet().remove(FAMILY_PREFIX + userId, digest);
+    }
+
+    @Override
+    public void revokeAll(UUID userId) {
+        String familyKey = FAMILY_PREFIX + userId;
+        Set<String> digests = redisTemplate.opsForSet().members(familyKey);
+
+        List<String> keys = new ArrayList<>();
+        keys.add(familyKey);
+        if (digests != null) {
+            digests.forEach(digest -> keys.add(TOKEN_PREFIX + digest));
+        }
+        redisTemplate.delete(keys);
+        legacyStore.revokeAll(userId);
+    }
+}
@@ -0,0 +1,21 @@
+package pixelart.shop.features.auth;
+
+import java.util.UUID;
+
+public interface RefreshTokenStore {
+    void save(UUID userId, String token);
+    Consumed consume(String token);
+    void revoke(String token);
+    void revokeAll(UUID userId);
+
+    enum Status {
+        ROTATED,
+        REUSED,
+        EXPIRED,
+        UNKNOWN
+    }
+
+    // userId is set for ROTATED and REUSED
+    record Consumed(Status status, UUID userId) {
+    }
+}
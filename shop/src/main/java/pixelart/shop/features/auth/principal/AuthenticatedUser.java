@@ -0,0 +1,39 @@
+package pixelart.shop.features.auth.principal;
+
+import io.jsonwebtoken.Claims;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import pixelart.shop.features.user.entity.User;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+// Principal built from access token claims alone, the User entity is only loaded by endpoints that need it
+public record AuthenticatedUser(UUID id, String email, User.Role role, long tokenVersion) {
+
+    public static Optional<AuthenticatedUser> from(Claims claims) {
+        String subject = claims.getSubject();
+        String role = claims.get("role", String.class);
+        if (subject == null || role == null) {
+            return Optional.empty();
+        }
+
+        Number version = claims.get("ver", Number.class);
+        return Optional.of(new AuthenticatedUser(
+                UUID.fromString(subject),
+                claims.get("email", String.class),
+                User.Role.valueOf(role),
+                version != null ? version.longValue() : 0L
+        ));
+    }
+
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return List.of(new SimpleGrantedAuthority("ROLE_" + role.name()));
+    }
+
+    public boolean isAdmin() {
+        return role == User.Role.ADMIN;
+    }
+}
@@ -0,0 +1,99 @@
+package pixelart.shop.features.auth.principal;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import pixelart.shop.features.user.repository.UserRepository;
+import pixelart.shop.shared.infrastructure.cache.CacheInvalidationBus;
+
+import java.time.Duration;
+import java.util.UUID;
+
+// Minimum access token version per user, mirrored from users.token_version into a Redis hash
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TokenVersions {
+
+    private static final String NAME = "token-versions";
+    private static final String KEY = "auth:token-versions";
+
+    private final StringRedisTemplate redisTemplate;
+    private final CacheInvalidationBus invalidationBus;
+    private final UserRepository userRepository;
+
+    private final Cache<UUID, Long> local = Caffeine.newBuilder()
+            .maximumSize(100_000)
+            .expireAfterWrite(Duration.ofSeconds(30))
+            .build();
+
+    @PostConstruct
+    void subscribe() {
+        invalidationBus.register(NAME, key -> {
+            if (key == null) {
+                local.invalidateAll();
+            } else {
+                local.invalidate(UUID.fromString(key));
+            }
+        });
+    }
+
+    public boolean isCurrent(AuthenticatedUser principal) {
+        return principal.tokenVersion() >= local.get(principal.id(), this::load);
+    }
+
+    // Tokens issued before the bumped version stop authenticating once the transaction commits
+    public void revokeAfterCommit(UUID userId, long minimumVersion) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            revoke(userId, minimumVersion);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                revoke(userId, minimumVersion);
+            }
+        });
+    }
+
+    private void revoke(UUID userId, long minimumVersion) {
+        redisTemplate.opsForHash().put(KEY, userId.toString(), Long.toString(minimumVersion));
+        local.put(userId, minimumVersion);
+        invalidationBus.publishEvict(NAME, userId.toString());
+    }
+
+    private long load(UUID userId) {
+        String field = userId.toString();
+        Object value;
+        try {
+            value = redisTemplate.opsForHash().get(KEY, field);
+        } catch (RuntimeException e) {
+            log.warn("Unable to read token version for user {} from Redis: {}", userId, e.getMessage());
+            return loadFromDatabase(userId);
+        }
+        if (value != null) {
+            return Long.parseLong(value.toString());
+        }
+
+        // Missing after a flush or eviction: the row is authoritative. Only seeded if absent,
+        // so a revoke landing in between is never overwritten by the older value
+        long version = loadFromDatabase(userId);
+        try {
+            redisTemplate.opsForHash().putIfAbsent(KEY, field, Long.toString(version));
+        } catch (RuntimeException e) {
+            log.warn("Unable to seed token version for user {}: {}", userId, e.getMessage());
+        }
+        return version;
+    }
+
+    private long loadFromDatabase(UUID userId) {
+        return userRepository.findTokenVersionById(userId).orElse(0L);
+    }
+}
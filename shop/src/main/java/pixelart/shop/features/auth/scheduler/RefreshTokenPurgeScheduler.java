@@ -0,0 +1,79 @@
+package pixelart.shop.features.auth.scheduler;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import pixelart.shop.features.user.repository.RefreshTokenRepository;
+import pixelart.shop.shared.infrastructure.lock.RedisLock;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Slf4j
+@Component
+public class RefreshTokenPurgeScheduler {
+
+    private static final String LOCK_NAME = "refresh-token-purge";
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final RedisLock redisLock;
+    private final Counter purged;
+    private final int batchSize;
+    private final Duration lockTtl;
+    private final Duration revokedRetention;
+
+    public RefreshTokenPurgeScheduler(
+            RefreshTokenRepository refreshTokenRepository,
+            RedisLock redisLock,
+            MeterRegistry meterRegistry,
+            @Value("${shop.auth.refresh-token-purge.batch-size:1000}") int batchSize,
+            @Value("${shop.auth.refresh-token-purge.lock-ttl:600000}") long lockTtl,
+            @Value("${shop.auth.refresh-token-purge.revoked-retention:86400000}") long revokedRetention
+    ) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.redisLock = redisLock;
+        this.purged = Counter.builder("auth.refresh_tokens.purged")
+                .description("Expired or revoked refresh tokens deleted by the purge job")
+                .register(meterRegistry);
+        this.batchSize = batchSize;
+        this.lockTtl = Duration.ofMillis(lockTtl);
+        this.revokedRetention = Duration.ofMillis(revokedRetention);
+    }
+
+    @Scheduled(cron = "${shop.auth.refresh-token-purge.cron:0 15 * * * *}")
+    public void purgeExpiredAndRevoked() {
+        Optional<String> token = redisLock.tryAcquire(LOCK_NAME, lockTtl);
+        if (token.isEmpty()) {
+            log.debug("Refresh token purge is running on another node, skipping");
+            return;
+        }
+
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            // Rotated tokens are kept for a while so a replay is still reported as reuse
+            LocalDateTime revokedBefore = now.minus(revokedRetention);
+            // The lock is never extended, so the run stops well inside its TTL; the rest waits for the next run
+            long deadline = System.nanoTime() + lockTtl.toNanos() / 2;
+            long total = 0;
+            int deleted;
+
+            do {
+                deleted = refreshTokenRepository.deleteExpiredAndRevoked(now, revokedBefore, batchSize);
+                purged.increment(deleted);
+                total += deleted;
+            } while (deleted == batchSize && System.nanoTime() < deadline);
+
+            if (deleted == batchSize) {
+                log.info("Refresh token purge stopped at its time budget. Deleted: {}", total);
+            } else {
+                log.info("Refresh token purge completed. Deleted: {}", total);
+            }
+        } finally {
+            redisLock.release(LOCK_NAME, token.get());
+        }
+    }
+}
@@ -13,6 +13,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 import pixelart.shop.features.auth.event.UserRegisteredEvent;
 import pixelart.shop.features.oauth2.dto.OAuthUserInfo;
+import pixelart.shop.features.user.cache.UserPrincipalCache;
 import pixelart.shop.features.user.entity.User;
 import pixelart.shop.features.user.entity.UserAuthProvider;
 import pixelart.shop.features.user.repository.UserAuthProviderRepository;
@@ -29,6 +30,7 @@ public class CustomOAuth2UserService extends DefaultOAuth2UserService {
     private final UserRepository userRepository;
     private final UserAuthProviderRepository providerRepository;
     private final ApplicationEventPublisher eventPublisher;
+    private final UserPrincipalCache userPrincipalCache;
 
     @Override
     public OAuth2User loadUser(OAuth2UserRequest request)
@@ -55,6 +57,7 @@ public class CustomOAuth2UserService extends DefaultOAuth2UserService {
         if (existingProvider.isPresent()) {
             log.info("Existing OAuth2 user found: {}", userInfo.getEmail());
             User user = existingProvider.get().getUser();
+            rejectIfDisabled(user);
             updateUserIfNeeded(user, userInfo);
 
             boolean hasLocal = providerRepository.existsByUserIdAndProvider(
@@ -71,6 +74,7 @@ public class CustomOAuth2UserService extends DefaultOAuth2UserService {
         if (existingUser != null) {
             log.info("Linking {} account to existing user: {}", provider, existingUser.getEmail());
             user = existingUser;
+            rejectIfDisabled(user);
             updateUserIfNeeded(user, userInfo);
         } else {
             log.info("Creating new user from OAuth2: {}", userInfo.getEmail());
@@ -118,6 +122,7 @@ public class CustomOAuth2UserService extends DefaultOAuth2UserService {
 
         if (updated) {
             userRepository.save(user);
+            userPrincipalCache.evictAfterCommit(user.getId());
             log.info("Updated user info for: {}", user.getEmail());
         }
     }
@@ -247,4 +252,10 @@ public class CustomOAuth2UserService extends DefaultOAuth2UserService {
             default -> throw new IllegalArgumentException("Unknown provider: " + registrationId);
         };
     }
+
+    private void rejectIfDisabled(User user) {
+        if (!user.isEnabled()) {
+            throw new OAuth2AuthenticationException("Account has been disabled");
+        }
+    }
 }
\ No newline at end of file
@@ -1,21 +1,30 @@
 package pixelart.shop.features.sprite;
 
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import pixelart.shop.features.auth.principal.AuthenticatedUser;
+import pixelart.shop.features.sprite.dto.SpriteBatchRequest;
+import pixelart.shop.features.sprite.dto.SpriteBatchResult;
 import pixelart.shop.features.sprite.dto.SpriteFilterRequest;
+import pixelart.shop.features.sprite.dto.SpriteIdsRequest;
 import pixelart.shop.features.sprite.dto.SpriteListResponse;
 import pixelart.shop.features.sprite.dto.SpriteRequest;
 import pixelart.shop.features.sprite.dto.SpriteResponse;
-import pixelart.shop.features.user.entity.User;
+import pixelart.shop.shared.dto.CountMode;
+import pixelart.shop.shared.dto.CursorPage;
+import pixelart.shop.shared.exception.AppException;
 import pixelart.shop.shared.response.ApiResponse;
 
 import java.io.IOException;
+import java.util.List;
 import java.util.UUID;
 
 @RestController
@@ -23,55 +32,75 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class SpriteController {
 
+    private static final int MAX_CURSOR_PAGE_SIZE = 100;
+
     private final SpriteService spriteService;
 
     @GetMapping
-    public ResponseEntity<ApiResponse<Page<SpriteListResponse>>> getAll(
+    public ResponseEntity<ApiResponse<Slice<SpriteListResponse>>> getAll(
             SpriteFilterRequest filter,
             @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "12") int size,
+            @RequestParam(defaultValue = "exact") String count
+    ) {
+        return ResponseEntity.ok(ApiResponse.success(
+                spriteService.getAll(filter, page, size, CountMode.from(count))
+        ));
+    }
+
+    @GetMapping(params = "cursor")
+    public ResponseEntity<ApiResponse<CursorPage<SpriteListResponse>>> getAllByCursor(
+            SpriteFilterRequest filter,
+            @RequestParam String cursor,
             @RequestParam(defaultValue = "12") int size
     ) {
+        if (size < 1 || size > MAX_CURSOR_PAGE_SIZE) {
+            throw AppException.badRequest("size must be between 1 and " + MAX_CURSOR_PAGE_SIZE);
+        }
         return ResponseEntity.ok(ApiResponse.success(
-                spriteService.getAll(filter, page, size)
+                spriteService.getAllByCursor(filter, cursor, size)
         ));
     }
 
     @GetMapping("/me")
-    public ResponseEntity<ApiResponse<Page<SpriteListResponse>>> getMySprites(
+    public ResponseEntity<ApiResponse<Slice<SpriteListResponse>>> getMySprites(
             SpriteFilterRequest filter,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "42") int size,
-            @AuthenticationPrincipal User currentUser
+            @RequestParam(defaultValue = "exact") String count,
+            @AuthenticationPrincipal AuthenticatedUser currentUser
     ) {
         return ResponseEntity.ok(ApiResponse.success(
-                spriteService.getByUser(filter, page, size, currentUser)
+                spriteService.getByUser(filter, page, size, CountMode.from(count), currentUser)
         ));
     }
 
     @GetMapping("/user/{userId}")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<ApiResponse<Page<SpriteListResponse>>> getSpritesByUser(
+    public ResponseEntity<ApiResponse<Slice<SpriteListResponse>>> getSpritesByUser(
             SpriteFilterRequest filter,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "42") int size,
+            @RequestParam(defaultValue = "exact") String count,
             @PathVariable UUID userId
     ) {
         return ResponseEntity.ok(ApiResponse.success(
-                spriteService.getByUserId(filter, page, size, userId)
+                spriteService.getByUserId(filter, page, size, CountMode.from(count), userId)
         ));
     }
 
     @GetMapping("/trash")
-    public ResponseEntity<ApiResponse<Page<SpriteListResponse>>> getTrash(
+    public ResponseEntity<ApiResponse<Slice<SpriteListResponse>>> getTrash(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size,
-            @AuthenticationPrincipal User currentUser
+            @RequestParam(defaultValue = "exact") String count,
+            @AuthenticationPrincipal AuthenticatedUser currentUser
     ) {
         boolean isAdmin = currentUser.getAuthorities().stream()
                 .anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN"));
 
         return ResponseEntity.ok(ApiResponse.success(
-                spriteService.getTrash(page, size, currentUser, isAdmin)
+                spriteService.getTrash(page, size, CountMode.from(count), currentUser, isAdmin)
         ));
     }
 
@@ -84,13 +113,31 @@ public class SpriteController {
     public ResponseEntity<ApiResponse<SpriteResponse>> create(
             @RequestPart("data") SpriteRequest request,
             @RequestPart("image") MultipartFile image,
-            @AuthenticationPrincipal User currentUser
+            @RequestParam(defaultValue = "false") boolean async,
+            @AuthenticationPrincipal AuthenticatedUser currentUser
     ) throws IOException {
+        if (async) {
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(ApiResponse.success(
+                    spriteService.createAsync(request, image, currentUser)
+            ));
+        }
         return ResponseEntity.ok(ApiResponse.success(
                 spriteService.create(request, image, currentUser)
         ));
     }
 
+    @PostMapping(value = "/batch", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<ApiResponse<List<SpriteResponse>>> createBatch(
+            @RequestPart("manifest") SpriteBatchRequest manifest,
+            @RequestPart(value = "images", required = false) List<MultipartFile> images,
+            @RequestPart(value = "archive", required = false) MultipartFile archive,
+            @AuthenticationPrincipal AuthenticatedUser currentUser
+    ) throws IOException {
+        return ResponseEntity.ok(ApiResponse.success(
+                spriteService.createBatch(manifest, images, archive, currentUser)
+        ));
+    }
+
     @PutMapping(value = "/{id}", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     public ResponseEntity<ApiResponse<SpriteResponse>> update(
             @PathVariable UUID id,
@@ -118,4 +165,19 @@ public class SpriteController {
         spriteService.hardDelete(id);
         return ResponseEntity.ok(ApiResponse.success(null));
     }
-}
\ No newline at end of file
+
+    @PostMapping("/batch/delete")
+    public ResponseEntity<ApiResponse<SpriteBatchResult>> deleteAll(@Valid @RequestBody SpriteIdsRequest request) {
+        return ResponseEntity.ok(ApiResponse.success(spriteService.deleteAll(request.ids())));
+    }
+
+    @PostMapping("/batch/restore")
+    public ResponseEntity<ApiResponse<SpriteBatchResult>> restoreAll(@Valid @RequestBody SpriteIdsRequest request) {
+        return ResponseEntity.ok(ApiResponse.success(spriteService.restoreAll(request.ids())));
+    }
+
+    @PostMapping("/batch/permanent-delete")
+    public ResponseEntity<ApiResponse<SpriteBatchResult>> permanentDeleteAll(@Valid @RequestBody SpriteIdsRequest request) {
+        return ResponseEntity.ok(ApiResponse.success(spriteService.hardDeleteAll(request.ids())));
+    }
+}
@@ -1,29 +1,45 @@
 package pixelart.shop.features.sprite;
 
-import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 import org.springframework.web.multipart.MultipartFile;
+import pixelart.shop.features.auth.principal.AuthenticatedUser;
+import pixelart.shop.features.sprite.dto.SpriteBatchRequest;
+import pixelart.shop.features.sprite.dto.SpriteBatchResult;
 import pixelart.shop.features.sprite.dto.SpriteFilterRequest;
 import pixelart.shop.features.sprite.dto.SpriteListResponse;
 import pixelart.shop.features.sprite.dto.SpriteRequest;
 import pixelart.shop.features.sprite.dto.SpriteResponse;
-import pixelart.shop.features.user.entity.User;
+import pixelart.shop.shared.dto.CountMode;
+import pixelart.shop.shared.dto.CursorPage;
 
 import java.io.IOException;
+import java.util.List;
 import java.util.UUID;
 
 public interface SpriteService {
 
-    Page<SpriteListResponse> getAll(SpriteFilterRequest filter, int page, int size);
+    Slice<SpriteListResponse> getAll(SpriteFilterRequest filter, int page, int size, CountMode count);
 
-    Page<SpriteListResponse> getByUser(SpriteFilterRequest filter, int page, int size, User currentUser);
+    CursorPage<SpriteListResponse> getAllByCursor(SpriteFilterRequest filter, String cursor, int size);
 
-    Page<SpriteListResponse> getByUserId(SpriteFilterRequest filter, int page, int size, UUID userId);
+    Slice<SpriteListResponse> getByUser(SpriteFilterRequest filter, int page, int size, CountMode count, AuthenticatedUser currentUser);
 
-    Page<SpriteListResponse> getTrash(int page, int size, User currentUser, boolean isAdmin);
+    Slice<SpriteListResponse> getByUserId(SpriteFilterRequest filter, int page, int size, CountMode count, UUID userId);
+
+    Slice<SpriteListResponse> getTrash(int page, int size, CountMode count, AuthenticatedUser currentUser, boolean isAdmin);
 
     SpriteResponse getById(UUID id);
 
-    SpriteResponse create(SpriteRequest request, MultipartFile image, User currentUser) throws IOException;
+    SpriteResponse create(SpriteRequest request, MultipartFile image, AuthenticatedUser currentUser) throws IOException;
+
+    SpriteResponse createAsync(SpriteRequest request, MultipartFile image, AuthenticatedUser currentUser) throws IOException;
+
+    List<SpriteResponse> createBatch(
+            SpriteBatchRequest request,
+            List<MultipartFile> images,
+            MultipartFile archive,
+            AuthenticatedUser currentUser
+    ) throws IOException;
 
     SpriteResponse update(UUID id, SpriteRequest request, MultipartFile image) throws IOException;
 
@@ -32,4 +48,10 @@ public interface SpriteService {
     void hardDelete(UUID id) throws IOException;
 
     SpriteResponse restore(UUID id);
+
+    SpriteBatchResult deleteAll(List<UUID> ids);
+
+    SpriteBatchResult restoreAll(List<UUID> ids);
+
+    SpriteBatchResult hardDeleteAll(List<UUID> ids);
 }
\ No newline at end of file
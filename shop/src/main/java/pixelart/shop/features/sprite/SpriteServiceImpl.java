@@ -2,32 +2,71 @@ package pixelart.shop.features.sprite;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.*;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
+import pixelart.shop.features.auth.principal.AuthenticatedUser;
 import pixelart.shop.features.category.entity.Category;
 import pixelart.shop.features.category.repository.CategoryRepository;
+import pixelart.shop.features.sprite.cache.SpriteCacheEvictions;
+import pixelart.shop.features.sprite.cache.SpriteCacheVersions;
+import pixelart.shop.features.sprite.cleanup.SpriteTrashPurger;
+import pixelart.shop.features.sprite.dto.SpriteBatchItem;
+import pixelart.shop.features.sprite.dto.SpriteBatchRequest;
+import pixelart.shop.features.sprite.dto.SpriteBatchResult;
+import pixelart.shop.features.sprite.dto.SpriteCursor;
 import pixelart.shop.features.sprite.dto.SpriteFilterRequest;
 import pixelart.shop.features.sprite.dto.SpriteListResponse;
 import pixelart.shop.features.sprite.dto.SpriteRequest;
 import pixelart.shop.features.sprite.dto.SpriteResponse;
 import pixelart.shop.features.sprite.entity.Sprite;
+import pixelart.shop.features.sprite.entity.SpriteSearch;
+import pixelart.shop.features.sprite.processing.SpriteBatchUploader;
+import pixelart.shop.features.sprite.processing.SpriteImageProcessor;
+import pixelart.shop.features.sprite.projection.SpriteSearchProjector;
+import pixelart.shop.features.sprite.repository.SpriteCleanupRow;
 import pixelart.shop.features.sprite.repository.SpriteRepository;
-import pixelart.shop.features.sprite.repository.SpriteSpecification;
+import pixelart.shop.features.sprite.repository.SpriteSearchRepository;
+import pixelart.shop.features.sprite.repository.SpriteSearchSpecification;
+import pixelart.shop.features.upload.ImageUploader;
 import pixelart.shop.features.user.entity.User;
 import pixelart.shop.features.user.repository.UserRepository;
-import pixelart.shop.shared.dto.RestPage;
+import pixelart.shop.shared.dto.CountMode;
+import pixelart.shop.shared.dto.CursorPage;
 import pixelart.shop.shared.exception.AppException;
+import pixelart.shop.shared.infrastructure.pagination.PageCounter;
+import pixelart.shop.shared.infrastructure.storage.DeleteResult;
 import pixelart.shop.shared.infrastructure.storage.FileStorage;
 import pixelart.shop.shared.infrastructure.storage.UploadResult;
+import pixelart.shop.shared.util.SearchUtil;
 
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Slf4j
 @Service
@@ -35,29 +74,86 @@ import java.util.UUID;
 @Transactional
 public class SpriteServiceImpl implements SpriteService {
 
+    private static final String RELEVANCE_SORT = "relevance";
+
     private final UserRepository userRepository;
     private final SpriteRepository spriteRepository;
+    private final SpriteSearchRepository spriteSearchRepository;
+    private final SpriteSearchProjector spriteSearchProjector;
+    private final SpriteTrashPurger spriteTrashPurger;
     private final CategoryRepository categoryRepository;
     private final FileStorage fileStorage;
+    private final ImageUploader imageUploader;
+    private final SpriteImageProcessor spriteImageProcessor;
+    private final SpriteBatchUploader spriteBatchUploader;
+    private final TransactionTemplate transactionTemplate;
+    private final SpriteCacheVersions spriteCacheVersions;
+    private final SpriteCacheEvictions spriteCacheEvictions;
+    private final PageCounter pageCounter;
+
+    @Value("${shop.sprite.batch.max-items:500}")
+    private int maxBatchSize;
 
     @Override
     @Transactional(readOnly = true)
     @Cacheable(
             value = "sprites",
-            key = "{#filter.keyword, #filter.categoryIds, #filter.sortBy, #filter.sortOrder, #page, #size}"
+            key = "{#filter.keyword, #filter.categoryIds, #filter.sortBy, #filter.sortOrder, #page, #size, #count, "
+                    + "@spriteCacheVersions.listing(#filter.categoryIds)}",
+            sync = true
     )
-    public Page<SpriteListResponse> getAll(SpriteFilterRequest filter, int page, int size) {
+    public Slice<SpriteListResponse> getAll(SpriteFilterRequest filter, int page, int size, CountMode count) {
         Pageable pageable = buildPageable(filter, page, size);
-        Specification<Sprite> spec = SpriteSpecification.filter(filter.categoryIds(), filter.keyword(), null);
-        Page<SpriteListResponse> result = spriteRepository.findAll(spec, pageable).map(SpriteListResponse::from);
-        return new RestPage<>(result.getContent(), result.getNumber(), result.getSize(), result.getTotalElements());
+        Specification<SpriteSearch> spec = buildSpecification(filter, null, true);
+        return pageCounter.complete(
+                spriteSearchRepository.findListItems(spec, pageable),
+                pageable,
+                count,
+                countKey("sprites", filter, null),
+                () -> spriteSearchRepository.countListItems(spec)
+        );
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    @Cacheable(
+            value = "sprites",
+            key = "{'cursor', #filter.keyword, #filter.categoryIds, #filter.sortBy, #filter.sortOrder, #cursor, #size, "
+                    + "@spriteCacheVersions.listing(#filter.categoryIds)}",
+            sync = true
+    )
+    public CursorPage<SpriteListResponse> getAllByCursor(SpriteFilterRequest filter, String cursor, int size) {
+        String sortBy = resolveCursorSort(filter.sortBy());
+        // Newest/last first unless ascending order is asked for explicitly
+        boolean descending = !"asc".equalsIgnoreCase(filter.sortOrder());
+        Sort.Direction direction = descending ? Sort.Direction.DESC : Sort.Direction.ASC;
+        Sort sort = Sort.by(direction, sortBy).and(Sort.by(direction, "id"));
+
+        Specification<SpriteSearch> spec = SpriteSearchSpecification.filter(filter.categoryIds(), filter.keyword(), null, true);
+        if (cursor != null && !cursor.isBlank()) {
+            spec = spec.and(afterCursor(SpriteCursor.decode(cursor), sortBy, descending));
+        }
+
+        List<SpriteListResponse> rows = spriteSearchRepository.findListItems(spec, sort, size + 1);
+        boolean hasNext = rows.size() > size;
+        List<SpriteListResponse> content = hasNext ? rows.subList(0, size) : rows;
+
+        String nextCursor = null;
+        if (hasNext) {
+            SpriteListResponse last = content.get(content.size() - 1);
+            String value = "name".equals(sortBy) ? last.name() : last.createdAt().toString();
+            nextCursor = new SpriteCursor(sortBy, value, last.id()).encode();
+        }
+
+        return new CursorPage<>(List.copyOf(content), size, nextCursor, hasNext);
     }
 
     @Override
     @Transactional(readOnly = true)
     @Cacheable(
             value = "sprites:detail",
-            key = "#id"
+            key = "#id",
+            sync = true
     )
     public SpriteResponse getById(UUID id) {
         return spriteRepository
@@ -69,96 +165,272 @@ public class SpriteServiceImpl implements SpriteService {
 
     @Override
     @Transactional(readOnly = true)
-    public Page<SpriteListResponse> getByUser(SpriteFilterRequest filter, int page, int size, User currentUser) {
+    public Slice<SpriteListResponse> getByUser(
+            SpriteFilterRequest filter,
+            int page,
+            int size,
+            CountMode count,
+            AuthenticatedUser currentUser
+    ) {
         Pageable pageable = buildPageable(filter, page, size);
-        Specification<Sprite> spec = SpriteSpecification.filter(filter.categoryIds(), filter.keyword(), currentUser);
-        return spriteRepository.findAll(spec, pageable).map(SpriteListResponse::from);
+        // The owner's own listing includes sprites that are still processing or failed
+        Specification<SpriteSearch> spec = buildSpecification(filter, currentUser.id(), false);
+        return pageCounter.complete(
+                spriteSearchRepository.findListItems(spec, pageable),
+                pageable,
+                count,
+                countKey("sprites:own", filter, currentUser.id()),
+                () -> spriteSearchRepository.countListItems(spec)
+        );
     }
 
     @Override
     @Transactional(readOnly = true)
-    public Page<SpriteListResponse> getByUserId(SpriteFilterRequest filter, int page, int size, UUID userId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> AppException.notFound("User does not exist"));
+    public Slice<SpriteListResponse> getByUserId(
+            SpriteFilterRequest filter,
+            int page,
+            int size,
+            CountMode count,
+            UUID userId
+    ) {
+        if (!userRepository.existsById(userId)) {
+            throw AppException.notFound("User does not exist");
+        }
 
         Pageable pageable = buildPageable(filter, page, size);
-        Specification<Sprite> spec = SpriteSpecification.filter(filter.categoryIds(), filter.keyword(), user);
-        return spriteRepository.findAll(spec, pageable).map(SpriteListResponse::from);
+        Specification<SpriteSearch> spec = buildSpecification(filter, userId, true);
+        return pageCounter.complete(
+                spriteSearchRepository.findListItems(spec, pageable),
+                pageable,
+                count,
+                countKey("sprites", filter, userId),
+                () -> spriteSearchRepository.countListItems(spec)
+        );
     }
 
     @Override
     @Transactional(readOnly = true)
-    public Page<SpriteListResponse> getTrash(int page, int size, User currentUser, boolean isAdmin) {
-        User filterUser = isAdmin ? null : currentUser;
-        Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "updatedAt"));
-        Specification<Sprite> spec = SpriteSpecification.trash(filterUser);
-        return spriteRepository.findAll(spec, pageable).map(SpriteListResponse::from);
+    public Slice<SpriteListResponse> getTrash(int page, int size, CountMode count, AuthenticatedUser currentUser, boolean isAdmin) {
+        UUID filterUserId = isAdmin ? null : currentUser.id();
+        Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "deletedAt"));
+        Specification<SpriteSearch> spec = SpriteSearchSpecification.trash(filterUserId);
+        return pageCounter.complete(
+                spriteSearchRepository.findListItems(spec, pageable),
+                pageable,
+                count,
+                "sprites:trash|" + filterUserId,
+                () -> spriteSearchRepository.countListItems(spec)
+        );
     }
 
     @Override
-    @CacheEvict(value = {"sprites", "sprites:detail"}, allEntries = true)
-    public SpriteResponse create(SpriteRequest request, MultipartFile image, User currentUser) throws IOException {
-        List<Category> categories = categoryRepository.findAllById(request.categoryIds());
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public SpriteResponse create(SpriteRequest request, MultipartFile image, AuthenticatedUser currentUser) throws IOException {
+        UploadResult uploadResult = stageImage(image);
 
-        if (categories.isEmpty()) {
-            throw AppException.badRequest("At least one category is required");
-        }
+        return writeWithImage(uploadResult, status -> {
+            List<Category> categories = categoryRepository.findAllById(request.categoryIds());
+
+            if (categories.isEmpty()) {
+                throw AppException.badRequest("At least one category is required");
+            }
+
+            Sprite sprite = Sprite.builder()
+                    .name(request.name())
+                    .slug(generateUniqueSlug(request.name()))
+                    .imageUrl(uploadResult.url())
+                    .cloudinaryId(uploadResult.publicId())
+                    .categories(categories)
+                    .createdBy(userRepository.getReferenceById(currentUser.id()))
+                    .build();
 
-        UploadResult uploadResult = uploadImage(image);
+            spriteCacheVersions.bumpAfterCommit(categoryIds(categories));
 
-        Sprite sprite = Sprite.builder()
-                .name(request.name())
-                .slug(generateUniqueSlug(request.name()))
-                .imageUrl(uploadResult.url())
-                .cloudinaryId(uploadResult.publicId())
-                .categories(categories)
-                .createdBy(currentUser)
-                .build();
+            Sprite saved = spriteRepository.save(sprite);
+            spriteSearchProjector.project(saved);
+            imageUploader.confirm(uploadResult.publicId());
 
-        return SpriteResponse.from(spriteRepository.save(sprite));
+            return SpriteResponse.from(saved);
+        });
     }
 
+    // Saves the sprite as PROCESSING and leaves the upload to SpriteImageProcessor
     @Override
-    @CacheEvict(value = {"sprites", "sprites:detail"}, allEntries = true)
-    public SpriteResponse update(UUID id, SpriteRequest request, MultipartFile image) throws IOException {
-        Sprite sprite = spriteRepository
-                .findWithDetailsById(id)
-                .orElseThrow(() -> AppException.notFound("Sprite does not exist"));
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public SpriteResponse createAsync(SpriteRequest request, MultipartFile image, AuthenticatedUser currentUser) throws IOException {
+        if (image == null || image.isEmpty()) {
+            throw AppException.badRequest("Image is required");
+        }
 
-        List<Category> categories = categoryRepository.findAllById(request.categoryIds());
+        Path spooled = spriteImageProcessor.spool(image);
+        try {
+            SpriteResponse response = transactionTemplate.execute(status -> {
+                List<Category> categories = categoryRepository.findAllById(request.categoryIds());
+
+                if (categories.isEmpty()) {
+                    throw AppException.badRequest("At least one category is required");
+                }
+
+                Sprite sprite = Sprite.builder()
+                        .name(request.name())
+                        .slug(generateUniqueSlug(request.name()))
+                        .status(Sprite.Status.PROCESSING)
+                        .categories(categories)
+                        .createdBy(userRepository.getReferenceById(currentUser.id()))
+                        .build();
+
+                Sprite saved = spriteRepository.save(sprite);
+                spriteSearchProjector.project(saved);
+                return SpriteResponse.from(saved);
+            });
+
+            spriteImageProcessor.submit(response.getId(), spooled);
+            return response;
+        } catch (RuntimeException e) {
+            Files.deleteIfExists(spooled);
+            throw e;
+        }
+    }
 
-        if (categories.isEmpty()) {
-            throw AppException.badRequest("At least one category is required");
+    // Categories are resolved once and images are staged in parallel before the single insert transaction;
+    // listing caches are bumped once for the whole batch
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<SpriteResponse> createBatch(
+            SpriteBatchRequest request,
+            List<MultipartFile> images,
+            MultipartFile archive,
+            AuthenticatedUser currentUser
+    ) throws IOException {
+        List<SpriteBatchItem> items = request.sprites();
+        if (items == null || items.isEmpty()) {
+            throw AppException.badRequest("At least one sprite is required");
         }
+        if (items.size() > maxBatchSize) {
+            throw AppException.badRequest("A batch can contain at most " + maxBatchSize + " sprites");
+        }
+
+        Map<UUID, Category> categoriesById = categoryRepository
+                .findAllById(items.stream()
+                        .flatMap(item -> item.categoryIds() == null ? Stream.empty() : item.categoryIds().stream())
+                        .collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(Category::getId, Function.identity()));
+
+        List<List<Category>> itemCategories = new ArrayList<>(items.size());
+        for (SpriteBatchItem item : items) {
+            if (item.name() == null || item.name().isBlank()) {
+                throw AppException.badRequest("Sprite name can't be blank");
+            }
+
+            List<Category> categories = item.categoryIds() == null ? List.of() : item.categoryIds().stream()
+                    .distinct()
+                    .map(categoriesById::get)
+                    .filter(Objects::nonNull)
+                    .toList();
 
-        if (image != null && !image.isEmpty()) {
-            if (sprite.getCloudinaryId() != null) {
-                deleteImage(sprite.getCloudinaryId());
+            if (categories.isEmpty()) {
+                throw AppException.badRequest("At least one category is required: " + item.name());
             }
-            UploadResult uploadResult = uploadImage(image);
-            sprite.setImageUrl(uploadResult.url());
-            sprite.setCloudinaryId(uploadResult.publicId());
+            itemCategories.add(categories);
         }
 
-        sprite.setName(request.name());
-        sprite.setCategories(categories);
+        List<UploadResult> uploads = spriteBatchUploader.stageAll(
+                items.stream().map(SpriteBatchItem::file).toList(),
+                images,
+                archive
+        );
 
-        return SpriteResponse.from(spriteRepository.save(sprite));
+        try {
+            return transactionTemplate.execute(status -> {
+                User createdBy = userRepository.getReferenceById(currentUser.id());
+                List<Sprite> sprites = new ArrayList<>(items.size());
+
+                for (int i = 0; i < items.size(); i++) {
+                    sprites.add(Sprite.builder()
+                            .name(items.get(i).name())
+                            .slug(generateUniqueSlug(items.get(i).name()))
+                            .imageUrl(uploads.get(i).url())
+                            .cloudinaryId(uploads.get(i).publicId())
+                            .categories(new ArrayList<>(itemCategories.get(i)))
+                            .createdBy(createdBy)
+                            .build());
+                }
+
+                List<Sprite> saved = spriteRepository.saveAll(sprites);
+                spriteSearchProjector.projectNew(saved);
+                imageUploader.confirmAll(uploads.stream().map(UploadResult::publicId).toList());
+                spriteCacheVersions.bumpAfterCommit(categoriesById.keySet());
+
+                return saved.stream().map(SpriteResponse::from).toList();
+            });
+        } catch (RuntimeException e) {
+            spriteBatchUploader.discardAll(uploads);
+            throw e;
+        }
     }
 
     @Override
-    @CacheEvict(value = {"sprites", "sprites:detail"}, allEntries = true)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @CacheEvict(value = "sprites:detail", key = "#id")
+    public SpriteResponse update(UUID id, SpriteRequest request, MultipartFile image) throws IOException {
+        UploadResult uploadResult = image != null && !image.isEmpty() ? stageImage(image) : null;
+        AtomicReference<String> replacedImage = new AtomicReference<>();
+
+        SpriteResponse response = writeWithImage(uploadResult, status -> {
+            Sprite sprite = spriteRepository
+                    .findWithDetailsById(id)
+                    .orElseThrow(() -> AppException.notFound("Sprite does not exist"));
+
+            List<Category> categories = categoryRepository.findAllById(request.categoryIds());
+
+            if (categories.isEmpty()) {
+                throw AppException.badRequest("At least one category is required");
+            }
+
+            if (uploadResult != null) {
+                replacedImage.set(sprite.getCloudinaryId());
+                sprite.setImageUrl(uploadResult.url());
+                sprite.setCloudinaryId(uploadResult.publicId());
+                // A pending async upload is superseded by this one
+                sprite.setStatus(Sprite.Status.READY);
+                imageUploader.confirm(uploadResult.publicId());
+            }
+
+            Set<UUID> touchedCategoryIds = new HashSet<>(categoryIds(sprite));
+            touchedCategoryIds.addAll(categoryIds(categories));
+            spriteCacheVersions.bumpAfterCommit(touchedCategoryIds);
+
+            sprite.setName(request.name());
+            sprite.setCategories(categories);
+
+            Sprite saved = spriteRepository.save(sprite);
+            spriteSearchProjector.project(saved);
+
+            return SpriteResponse.from(saved);
+        });
+
+        if (replacedImage.get() != null) {
+            deleteImage(replacedImage.get());
+        }
+        return response;
+    }
+
+    @Override
+    @CacheEvict(value = "sprites:detail", key = "#id")
     public void delete(UUID id) throws IOException {
         Sprite sprite = spriteRepository
                 .findById(id)
                 .orElseThrow(() -> AppException.notFound("Sprite does not exist"));
 
+        spriteCacheVersions.bumpAfterCommit(categoryIds(sprite));
+
         sprite.softDelete();
-        spriteRepository.save(sprite);
+        spriteSearchProjector.project(spriteRepository.save(sprite));
     }
 
     @Override
-    @CacheEvict(value = {"sprites", "sprites:detail"}, allEntries = true)
+    @CacheEvict(value = "sprites:detail", key = "#id")
     public void hardDelete(UUID id) throws IOException {
         Sprite sprite = spriteRepository
                 .findById(id)
@@ -168,15 +440,17 @@ public class SpriteServiceImpl implements SpriteService {
             throw AppException.badRequest("Move sprite to trash before permanently deleting");
         }
 
+        spriteSearchProjector.remove(sprite.getId());
+        spriteRepository.delete(sprite);
+
+        // Only once the row is gone, so a rolled-back delete keeps its image
         if (sprite.getCloudinaryId() != null) {
-            deleteImage(sprite.getCloudinaryId());
+            deleteImagesAfterCommit(List.of(sprite.getCloudinaryId()));
         }
-
-        spriteRepository.delete(sprite);
     }
 
     @Override
-    @CacheEvict(value = {"sprites", "sprites:detail"}, allEntries = true)
+    @CacheEvict(value = "sprites:detail", key = "#id")
     public SpriteResponse restore(UUID id) {
         Sprite sprite = spriteRepository
                 .findWithDetailsById(id)
@@ -186,16 +460,114 @@ public class SpriteServiceImpl implements SpriteService {
             throw AppException.badRequest("Sprite is not in trash");
         }
 
+        spriteCacheVersions.bumpAfterCommit(categoryIds(sprite));
+
         sprite.restore();
 
-        return SpriteResponse.from(spriteRepository.save(sprite));
+        Sprite saved = spriteRepository.save(sprite);
+        spriteSearchProjector.project(saved);
+
+        return SpriteResponse.from(saved);
     }
 
-    private UploadResult uploadImage(MultipartFile file) throws IOException {
+    // Batch trash operations run one statement per table and evict only the details of the given ids
+    @Override
+    public SpriteBatchResult deleteAll(List<UUID> ids) {
+        Set<UUID> distinctIds = validateBatchIds(ids);
+        LocalDateTime now = LocalDateTime.now();
+
+        spriteCacheVersions.bumpAfterCommit(spriteRepository.findCategoryIds(distinctIds));
+        spriteCacheEvictions.evictDetailsAfterCommit(distinctIds);
+
+        int affected = spriteRepository.softDeleteAll(distinctIds, now);
+        spriteSearchProjector.softDeleteAll(distinctIds, now);
+
+        return new SpriteBatchResult(distinctIds.size(), affected);
+    }
+
+    @Override
+    public SpriteBatchResult restoreAll(List<UUID> ids) {
+        Set<UUID> distinctIds = validateBatchIds(ids);
+
+        spriteCacheVersions.bumpAfterCommit(spriteRepository.findCategoryIds(distinctIds));
+        spriteCacheEvictions.evictDetailsAfterCommit(distinctIds);
+
+        int affected = spriteRepository.restoreAll(distinctIds, LocalDateTime.now());
+        spriteSearchProjector.restoreAll(distinctIds);
+
+        return new SpriteBatchResult(distinctIds.size(), affected);
+    }
+
+    // Only sprites already in trash are removed; their images go in one bulk delete once the rows are gone.
+    // SpriteTrashPurger evicts the purged details and affected packs.
+    @Override
+    public SpriteBatchResult hardDeleteAll(List<UUID> ids) {
+        Set<UUID> distinctIds = validateBatchIds(ids);
+
+        List<SpriteCleanupRow> purged = spriteTrashPurger.purgeInactive(distinctIds, LocalDateTime.now());
+        List<String> publicIds = purged.stream()
+                .map(SpriteCleanupRow::getCloudinaryId)
+                .filter(Objects::nonNull)
+                .toList();
+
+        if (!publicIds.isEmpty()) {
+            deleteImagesAfterCommit(publicIds);
+        }
+
+        return new SpriteBatchResult(distinctIds.size(), purged.size());
+    }
+
+    private Set<UUID> validateBatchIds(List<UUID> ids) {
+        if (ids == null || ids.isEmpty()) {
+            throw AppException.badRequest("At least one sprite id is required");
+        }
+        if (ids.size() > maxBatchSize) {
+            throw AppException.badRequest("A batch can contain at most " + maxBatchSize + " sprites");
+        }
+        return new LinkedHashSet<>(ids);
+    }
+
+    private void deleteImagesAfterCommit(List<String> publicIds) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                deleteImages(publicIds);
+            }
+        });
+    }
+
+    private void deleteImages(List<String> publicIds) {
+        DeleteResult result = fileStorage.deleteAll(publicIds);
+        if (!result.failed().isEmpty()) {
+            log.warn("Unable to delete {} images: {}", result.failed().size(), result.failed());
+        }
+    }
+
+    private List<UUID> categoryIds(Sprite sprite) {
+        return categoryIds(sprite.getCategories());
+    }
+
+    private List<UUID> categoryIds(List<Category> categories) {
+        return categories.stream().map(Category::getId).toList();
+    }
+
+    private UploadResult stageImage(MultipartFile file) throws IOException {
         if (file == null || file.isEmpty()) {
             throw AppException.badRequest("Image is required");
         }
-        return fileStorage.upload(file.getBytes(), "sprites");
+        return imageUploader.stage(file, "sprites");
+    }
+
+    // The image is uploaded before any transaction opens; if the write fails the staged image is discarded
+    private <T> T writeWithImage(UploadResult staged, TransactionCallback<T> write) {
+        try {
+            return transactionTemplate.execute(write);
+        } catch (RuntimeException e) {
+            if (staged != null) {
+                imageUploader.discard(staged.publicId());
+            }
+            throw e;
+        }
     }
 
     private void deleteImage(String publicId) {
@@ -208,14 +580,70 @@ public class SpriteServiceImpl implements SpriteService {
 
     private Pageable buildPageable(SpriteFilterRequest filter, int page, int size) {
         Sort sort = Sort.unsorted();
-        if (filter.sortBy() != null && !filter.sortBy().isBlank()) {
+        if (RELEVANCE_SORT.equals(filter.sortBy())) {
+            // Ordering comes from the specification; without a keyword fall back to newest first
+            if (!SearchUtil.hasKeyword(filter.keyword())) {
+                sort = Sort.by(Sort.Direction.DESC, "createdAt");
+            }
+        } else if (filter.sortBy() != null && !filter.sortBy().isBlank()) {
             Sort.Direction direction = "desc".equalsIgnoreCase(filter.sortOrder())
                     ? Sort.Direction.DESC : Sort.Direction.ASC;
-            sort = Sort.by(direction, filter.sortBy());
+            sort = Sort.by(direction, resolvePageSort(filter.sortBy()));
         }
         return PageRequest.of(page, size, sort);
     }
 
+    // Only columns of sprite_search can be sorted on
+    private String resolvePageSort(String sortBy) {
+        if ("createdAt".equals(sortBy) || "name".equals(sortBy)) {
+            return sortBy;
+        }
+        throw AppException.badRequest("Sprites can only be sorted by createdAt, name or relevance");
+    }
+
+    private String countKey(String scope, SpriteFilterRequest filter, UUID createdBy) {
+        return String.join("|",
+                scope,
+                String.valueOf(filter.keyword()),
+                String.valueOf(filter.categoryIds().stream().sorted().toList()),
+                String.valueOf(createdBy)
+        );
+    }
+
+    private Specification<SpriteSearch> buildSpecification(SpriteFilterRequest filter, UUID createdBy, boolean readyOnly) {
+        Specification<SpriteSearch> spec = SpriteSearchSpecification.filter(
+                filter.categoryIds(), filter.keyword(), createdBy, readyOnly
+        );
+        if (RELEVANCE_SORT.equals(filter.sortBy()) && SearchUtil.hasKeyword(filter.keyword())) {
+            spec = spec.and(SpriteSearchSpecification.orderByRelevance(filter.keyword()));
+        }
+        return spec;
+    }
+
+    private String resolveCursorSort(String sortBy) {
+        if (sortBy == null || sortBy.isBlank() || "createdAt".equals(sortBy)) {
+            return "createdAt";
+        }
+        if ("name".equals(sortBy)) {
+            return "name";
+        }
+        throw AppException.badRequest("Cursor pagination only supports sorting by createdAt or name");
+    }
+
+    private Specification<SpriteSearch> afterCursor(SpriteCursor cursor, String sortBy, boolean descending) {
+        if (!sortBy.equals(cursor.sortBy())) {
+            throw AppException.badRequest("Cursor does not match the requested sort");
+        }
+        if ("name".equals(sortBy)) {
+            return SpriteSearchSpecification.after(sortBy, cursor.value(), cursor.id(), descending);
+        }
+        try {
+            return SpriteSearchSpecification.after(sortBy, LocalDateTime.parse(cursor.value()), cursor.id(), descending);
+        } catch (DateTimeParseException e) {
+            throw AppException.badRequest("Invalid cursor");
+        }
+    }
+
     private String generateUniqueSlug(String name) {
         String baseSlug = name.toLowerCase()
                 .replaceAll("[^a-z0-9\\s-]", "")
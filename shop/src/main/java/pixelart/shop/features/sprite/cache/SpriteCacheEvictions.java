@@ -0,0 +1,62 @@
+package pixelart.shop.features.sprite.cache;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+// Per-id eviction for writes that touch a known set of sprites, run once the write is visible
+@Component
+@RequiredArgsConstructor
+public class SpriteCacheEvictions {
+
+    private final CacheManager cacheManager;
+
+    public void evictDetailsAfterCommit(Collection<UUID> spriteIds) {
+        List<UUID> ids = List.copyOf(spriteIds);
+        afterCommit(() -> evict("sprites:detail", ids));
+    }
+
+    // Pack details are evicted by id; listing keys are per filter, so the listing is cleared
+    // only when some pack actually lost a sprite
+    public void evictAssetPacksAfterCommit(Collection<UUID> packIds) {
+        if (packIds.isEmpty()) {
+            return;
+        }
+        List<UUID> ids = List.copyOf(packIds);
+        afterCommit(() -> {
+            evict("asset-packs:detail", ids);
+            Cache listing = cacheManager.getCache("asset-packs");
+            if (listing != null) {
+                listing.clear();
+            }
+        });
+    }
+
+    private void evict(String name, List<UUID> ids) {
+        Cache cache = cacheManager.getCache(name);
+        if (cache != null) {
+            ids.forEach(cache::evict);
+        }
+    }
+
+    private void afterCommit(Runnable eviction) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            eviction.run();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                eviction.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,61 @@
+package pixelart.shop.features.sprite.cache;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import pixelart.shop.shared.infrastructure.cache.CacheVersions;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+// Listing keys carry the version of the tags they depend on: unfiltered listings depend on
+// the global tag, category-filtered ones only on their categories. A write bumps the global
+// tag and the tags of the categories it touched, so unrelated category pages stay cached.
+@Component("spriteCacheVersions")
+@RequiredArgsConstructor
+public class SpriteCacheVersions {
+
+    private static final String ALL = "sprites";
+    private static final String CATEGORY_PREFIX = "sprites:category:";
+
+    private final CacheVersions cacheVersions;
+
+    public String listing(List<UUID> categoryIds) {
+        if (categoryIds == null || categoryIds.isEmpty()) {
+            return "v" + cacheVersions.current(Set.of(ALL)).get(ALL);
+        }
+
+        Set<String> tags = categoryIds.stream()
+                .map(id -> CATEGORY_PREFIX + id)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        Map<String, Long> versions = cacheVersions.current(tags);
+
+        return tags.stream()
+                .map(tag -> String.valueOf(versions.get(tag)))
+                .collect(Collectors.joining(".", "v", ""));
+    }
+
+    public void bumpAfterCommit(Collection<UUID> categoryIds) {
+        Set<String> tags = new LinkedHashSet<>();
+        tags.add(ALL);
+        categoryIds.forEach(id -> tags.add(CATEGORY_PREFIX + id));
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            tags.forEach(cacheVersions::bump);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                tags.forEach(cacheVersions::bump);
+            }
+        });
+    }
+}
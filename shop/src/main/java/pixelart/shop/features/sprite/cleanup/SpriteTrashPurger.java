@@ -0,0 +1,45 @@
+package pixelart.shop.features.sprite.cleanup;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import pixelart.shop.features.sprite.cache.SpriteCacheEvictions;
+import pixelart.shop.features.sprite.projection.SpriteSearchProjector;
+import pixelart.shop.features.sprite.repository.SpriteCleanupRow;
+import pixelart.shop.features.sprite.repository.SpriteRepository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+// Permanent deletion of trashed sprites, shared by the cleanup job and batch permanent-delete
+@Component
+@RequiredArgsConstructor
+public class SpriteTrashPurger {
+
+    private final SpriteRepository spriteRepository;
+    private final SpriteSearchProjector spriteSearchProjector;
+    private final SpriteCacheEvictions spriteCacheEvictions;
+
+    // Rows that are still expired are locked and deleted together; their images are removed by the
+    // caller after commit, so a rolled-back chunk keeps its files. Only the purged sprites and the
+    // packs that contained them are evicted.
+    @Transactional
+    public List<SpriteCleanupRow> purgeInactive(Collection<UUID> ids, LocalDateTime cutoffDate) {
+        List<SpriteCleanupRow> rows = spriteRepository.lockInactiveBefore(ids, cutoffDate);
+        if (rows.isEmpty()) {
+            return rows;
+        }
+
+        List<UUID> lockedIds = rows.stream().map(SpriteCleanupRow::getId).toList();
+        spriteCacheEvictions.evictDetailsAfterCommit(lockedIds);
+        spriteCacheEvictions.evictAssetPacksAfterCommit(spriteRepository.findAssetPackIds(lockedIds));
+
+        spriteRepository.deleteCategoryLinks(lockedIds);
+        spriteRepository.deleteAssetPackLinks(lockedIds);
+        spriteSearchProjector.removeAll(lockedIds);
+        spriteRepository.deleteAllByIds(lockedIds);
+        return rows;
+    }
+}
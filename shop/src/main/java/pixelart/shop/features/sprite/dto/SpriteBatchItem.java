@@ -0,0 +1,20 @@
+package pixelart.shop.features.sprite.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+
+import java.util.List;
+import java.util.UUID;
+
+// One manifest entry of a batch import; file is the image part's filename or its path inside the archive
+public record SpriteBatchItem(
+
+        @NotBlank(message = "Sprite name can't be blank")
+        String name,
+
+        @NotNull(message = "Category can't be null")
+        List<UUID> categoryIds,
+
+        @NotBlank(message = "Image file can't be blank")
+        String file
+) {}
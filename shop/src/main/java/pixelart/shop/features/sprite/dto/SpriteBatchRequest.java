@@ -0,0 +1,12 @@
+package pixelart.shop.features.sprite.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+
+import java.util.List;
+
+public record SpriteBatchRequest(
+
+        @NotEmpty(message = "At least one sprite is required")
+        List<@Valid SpriteBatchItem> sprites
+) {}
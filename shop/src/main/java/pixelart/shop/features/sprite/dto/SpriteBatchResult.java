@@ -0,0 +1,4 @@
+package pixelart.shop.features.sprite.dto;
+
+// Ids that were missing or already in the target state are skipped, so affected can be lower than requested
+public record SpriteBatchResult(int requested, int affected) {}
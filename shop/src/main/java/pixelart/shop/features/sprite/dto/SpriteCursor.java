@@ -0,0 +1,39 @@
+package pixelart.shop.features.sprite.dto;
+
+import pixelart.shop.shared.exception.AppException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.UUID;
+
+public record SpriteCursor(
+        String sortBy,
+        String value,
+        UUID id
+) {
+    private static final String SEPARATOR = "|";
+
+    public String encode() {
+        String raw = sortBy + SEPARATOR + value + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static SpriteCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int first = raw.indexOf(SEPARATOR);
+            int last = raw.lastIndexOf(SEPARATOR);
+            if (first < 0 || first == last) {
+                throw AppException.badRequest("Invalid cursor");
+            }
+            return new SpriteCursor(
+                    raw.substring(0, first),
+                    raw.substring(first + 1, last),
+                    UUID.fromString(raw.substring(last + 1))
+            );
+        } catch (IllegalArgumentException e) {
+            throw AppException.badRequest("Invalid cursor");
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package pixelart.shop.features.sprite.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+
+import java.util.List;
+import java.util.UUID;
+
+public record SpriteIdsRequest(
+
+        @NotEmpty(message = "At least one sprite id is required")
+        List<UUID> ids
+) {}
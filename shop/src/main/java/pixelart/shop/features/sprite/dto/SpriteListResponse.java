@@ -11,6 +11,7 @@ public record SpriteListResponse(
         String name,
         String slug,
         String imageUrl,
+        Sprite.Status status,
         LocalDateTime createdAt,
         LocalDateTime deletedAt
 
@@ -21,6 +22,7 @@ public record SpriteListResponse(
                 s.getName(),
                 s.getSlug(),
                 s.getImageUrl(),
+                s.getStatus(),
                 s.getCreatedAt(),
                 s.getDeletedAt()
         );
@@ -17,6 +17,7 @@ public class SpriteResponse {
     private final String name;
     private final String slug;
     private final String imageUrl;
+    private final Sprite.Status status;
     private final List<UUID> categoryIds;
     private final List<String> categoryNames;
     private final String createdBy;
@@ -28,6 +29,7 @@ public class SpriteResponse {
             @JsonProperty("name") String name,
             @JsonProperty("slug") String slug,
             @JsonProperty("imageUrl") String imageUrl,
+            @JsonProperty("status") Sprite.Status status,
             @JsonProperty("categoryIds") List<UUID> categoryIds,
             @JsonProperty("categoryNames") List<String> categoryNames,
             @JsonProperty("createdBy") String createdBy,
@@ -37,6 +39,7 @@ public class SpriteResponse {
         this.name = name;
         this.slug = slug;
         this.imageUrl = imageUrl;
+        this.status = status;
         this.categoryIds = categoryIds;
         this.categoryNames = categoryNames;
         this.createdBy = createdBy;
@@ -49,6 +52,7 @@ public class SpriteResponse {
                 s.getName(),
                 s.getSlug(),
                 s.getImageUrl(),
+                s.getStatus(),
                 s.getCategories().stream().map(Category::getId).toList(),
                 s.getCategories().stream().map(Category::getName).toList(),
                 s.getCreatedBy().getNickname(),
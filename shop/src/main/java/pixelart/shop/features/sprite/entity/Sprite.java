@@ -38,12 +38,18 @@ public class Sprite implements Serializable {
     @Column(unique = true, nullable = false)
     private String slug;
 
-    @Column(nullable = false, length = 500)
+    // Both stay null while the image of an asynchronously created sprite is PROCESSING
+    @Column(length = 500)
     private String imageUrl;
 
-    @Column(nullable = false)
+    @Column
     private String cloudinaryId;
 
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, columnDefinition = "varchar(20) default 'READY'")
+    @Builder.Default
+    private Status status = Status.READY;
+
     @ManyToMany(fetch = FetchType.LAZY)
     @JoinTable(
             name = "sprite_categories",
@@ -81,4 +87,10 @@ public class Sprite implements Serializable {
     public void restore() {
         this.deletedAt = null;
     }
+
+    public enum Status {
+        PROCESSING,
+        READY,
+        FAILED
+    }
 }
\ No newline at end of file
@@ -0,0 +1,48 @@
+package pixelart.shop.features.sprite.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// Flattened listing row per sprite, kept in sync by SpriteSearchProjector in the same transaction as the write
+@Entity
+@Table(name = "sprite_search")
+@Getter
+@Setter
+@NoArgsConstructor
+@EqualsAndHashCode(of = "id")
+public class SpriteSearch {
+
+    @Id
+    @Column(name = "sprite_id")
+    private UUID id;
+
+    @Column(nullable = false)
+    private String name;
+
+    @Column(nullable = false)
+    private String slug;
+
+    // Null until an asynchronously created sprite has its image
+    @Column(length = 500)
+    private String imageUrl;
+
+    // Public listings only show READY rows; owners also see PROCESSING and FAILED ones
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Sprite.Status status;
+
+    @Column(nullable = false)
+    private UUID[] categoryIds;
+
+    @Column(nullable = false)
+    private UUID createdBy;
+
+    @Column
+    private LocalDateTime deletedAt;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,192 @@
+package pixelart.shop.features.sprite.processing;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.FileSystemUtils;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.multipart.MultipartFile;
+import pixelart.shop.features.upload.ImageUploader;
+import pixelart.shop.shared.exception.AppException;
+import pixelart.shop.shared.infrastructure.storage.UploadResult;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+// Stages the images of a batch import, either separate multipart parts or one zip archive,
+// matched to manifest entries by file name. Uploads run in parallel, bounded per request;
+// if any of them fails the ones already staged are discarded.
+@Slf4j
+@Component
+public class SpriteBatchUploader {
+
+    private static final String FOLDER = "sprites";
+
+    private final ImageUploader imageUploader;
+    private final Executor spriteImportExecutor;
+    private final int parallelism;
+    private final long maxImageSize;
+
+    public SpriteBatchUploader(
+            ImageUploader imageUploader,
+            @Qualifier("spriteImportExecutor") Executor spriteImportExecutor,
+            @Value("${shop.sprite.batch.upload-parallelism:8}") int parallelism,
+            @Value("${shop.sprite.batch.max-image-size:10MB}") DataSize maxImageSize
+    ) {
+        this.imageUploader = imageUploader;
+        this.spriteImportExecutor = spriteImportExecutor;
+        this.parallelism = parallelism;
+        this.maxImageSize = maxImageSize.toBytes();
+    }
+
+    // Results are in the order of fileNames
+    public List<UploadResult> stageAll(List<String> fileNames, List<MultipartFile> images, MultipartFile archive)
+            throws IOException {
+        if (archive != null && !archive.isEmpty()) {
+            Path workDir = Files.createTempDirectory("sprite-batch-");
+            try {
+                Map<String, Path> extracted = extract(archive, new HashSet<>(fileNames), workDir);
+                List<Upload> uploads = fileNames.stream()
+                        .map(name -> {
+                            Path file = extracted.get(name);
+                            if (file == null) {
+                                throw AppException.badRequest("Image not found in archive: " + name);
+                            }
+                            return (Upload) () -> imageUploader.stage(file, FOLDER);
+                        })
+                        .toList();
+                return runAll(uploads);
+            } finally {
+                FileSystemUtils.deleteRecursively(workDir);
+            }
+        }
+
+        Map<String, MultipartFile> byName = new HashMap<>();
+        if (images != null) {
+            images.forEach(image -> byName.putIfAbsent(image.getOriginalFilename(), image));
+        }
+
+        List<Upload> uploads = fileNames.stream()
+                .map(name -> {
+                    MultipartFile image = byName.get(name);
+                    if (image == null || image.isEmpty()) {
+                        throw AppException.badRequest("Image not found: " + name);
+                    }
+                    return (Upload) () -> imageUploader.stage(image, FOLDER);
+                })
+                .toList();
+        return runAll(uploads);
+    }
+
+    public void discardAll(Collection<UploadResult> staged) {
+        staged.stream()
+                .filter(Objects::nonNull)
+                .forEach(result -> imageUploader.discard(result.publicId()));
+    }
+
+    private List<UploadResult> runAll(List<Upload> uploads) throws IOException {
+        UploadResult[] results = new UploadResult[uploads.size()];
+        AtomicReference<Exception> failure = new AtomicReference<>();
+        Semaphore slots = new Semaphore(parallelism);
+
+        for (int i = 0; i < uploads.size() && failure.get() == null; i++) {
+            int index = i;
+            Runnable task = () -> {
+                try {
+                    results[index] = uploads.get(index).run();
+                } catch (Exception e) {
+                    failure.compareAndSet(null, e);
+                } finally {
+                    slots.release();
+                }
+            };
+
+            slots.acquireUninterruptibly();
+            try {
+                spriteImportExecutor.execute(task);
+            } catch (RejectedExecutionException e) {
+                // The pool is shared between concurrent imports; run on the request thread instead
+                task.run();
+            }
+        }
+
+        // Wait for the uploads still in flight
+        slots.acquireUninterruptibly(parallelism);
+
+        if (failure.get() != null) {
+            discardAll(Arrays.asList(results));
+            if (failure.get() instanceof IOException e) {
+                throw e;
+            }
+            throw (RuntimeException) failure.get();
+        }
+        return Arrays.asList(results);
+    }
+
+    private Map<String, Path> extract(MultipartFile archive, Set<String> wanted, Path workDir) throws IOException {
+        Map<String, Path> extracted = new HashMap<>();
+
+        try (ZipInputStream zip = new ZipInputStream(archive.getInputStream())) {
+            ZipEntry entry;
+            while ((entry = zip.getNextEntry()) != null) {
+                String name = entry.getName();
+                if (entry.isDirectory() || !wanted.contains(name) || extracted.containsKey(name)) {
+                    continue;
+                }
+
+                // Entry names never become paths, so an archive can't write outside workDir
+                Path target = workDir.resolve(extracted.size() + extension(name));
+                copyLimited(zip, target, name);
+                extracted.put(name, target);
+            }
+        } catch (IllegalArgumentException e) {
+            throw AppException.badRequest("Invalid archive: " + e.getMessage());
+        }
+        return extracted;
+    }
+
+    private void copyLimited(InputStream in, Path target, String name) throws IOException {
+        byte[] buffer = new byte[8192];
+        long total = 0;
+        try (OutputStream out = Files.newOutputStream(target)) {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                total += read;
+                if (total > maxImageSize) {
+                    throw AppException.badRequest("Image exceeds the size limit: " + name);
+                }
+                out.write(buffer, 0, read);
+            }
+        }
+    }
+
+    // Keeps the extension so the content type can still be detected from the extracted file
+    private String extension(String name) {
+        int dot = name.lastIndexOf('.');
+        String extension = dot < 0 ? "" : name.substring(dot + 1);
+        return extension.matches("[A-Za-z0-9]{1,5}") ? "." + extension.toLowerCase() : "";
+    }
+
+    @FunctionalInterface
+    private interface Upload {
+        UploadResult run() throws IOException;
+    }
+}
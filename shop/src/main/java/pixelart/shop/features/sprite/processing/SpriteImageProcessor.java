@@ -0,0 +1,182 @@
+package pixelart.shop.features.sprite.processing;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+import pixelart.shop.features.category.entity.Category;
+import pixelart.shop.features.sprite.cache.SpriteCacheEvictions;
+import pixelart.shop.features.sprite.cache.SpriteCacheVersions;
+import pixelart.shop.features.sprite.entity.Sprite;
+import pixelart.shop.features.sprite.projection.SpriteSearchProjector;
+import pixelart.shop.features.sprite.repository.SpriteRepository;
+import pixelart.shop.features.upload.ImageUploader;
+import pixelart.shop.shared.infrastructure.storage.UploadResult;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+// Finishes sprites created with ?async=true. The image waits in a node-local spool directory
+// (named after the sprite id) until a worker uploads it and flips the sprite to READY or FAILED.
+// Spooled files are re-queued periodically, which covers restarts and a full queue.
+@Slf4j
+@Component
+public class SpriteImageProcessor {
+
+    private static final String INCOMING_PREFIX = "incoming-";
+    private static final Duration INCOMING_MAX_AGE = Duration.ofHours(1);
+
+    private final SpriteRepository spriteRepository;
+    private final SpriteSearchProjector spriteSearchProjector;
+    private final SpriteCacheVersions spriteCacheVersions;
+    private final ImageUploader imageUploader;
+    private final TransactionTemplate transactionTemplate;
+    private final SpriteCacheEvictions spriteCacheEvictions;
+    private final Executor spriteUploadExecutor;
+    private final Path spoolDir;
+
+    private final Set<UUID> inFlight = ConcurrentHashMap.newKeySet();
+
+    public SpriteImageProcessor(
+            SpriteRepository spriteRepository,
+            SpriteSearchProjector spriteSearchProjector,
+            SpriteCacheVersions spriteCacheVersions,
+            ImageUploader imageUploader,
+            TransactionTemplate transactionTemplate,
+            SpriteCacheEvictions spriteCacheEvictions,
+            @Qualifier("spriteUploadExecutor") Executor spriteUploadExecutor,
+            @Value("${shop.sprite.upload.spool-dir:${java.io.tmpdir}/sprite-spool}") String spoolDir
+    ) throws IOException {
+        this.spriteRepository = spriteRepository;
+        this.spriteSearchProjector = spriteSearchProjector;
+        this.spriteCacheVersions = spriteCacheVersions;
+        this.imageUploader = imageUploader;
+        this.transactionTemplate = transactionTemplate;
+        this.spriteCacheEvictions = spriteCacheEvictions;
+        this.spriteUploadExecutor = spriteUploadExecutor;
+        this.spoolDir = Files.createDirectories(Path.of(spoolDir));
+    }
+
+    public Path spool(MultipartFile image) throws IOException {
+        Path target = spoolDir.resolve(INCOMING_PREFIX + UUID.randomUUID());
+        try (InputStream content = image.getInputStream()) {
+            Files.copy(content, target);
+        }
+        return target;
+    }
+
+    // Called once the PROCESSING row has committed
+    public void submit(UUID spriteId, Path spooled) throws IOException {
+        Files.move(spooled, spoolDir.resolve(spriteId.toString()), StandardCopyOption.ATOMIC_MOVE);
+        enqueue(spriteId);
+    }
+
+    @Scheduled(fixedDelayString = "${shop.sprite.upload.resume-interval:60000}")
+    public void resumeSpooled() {
+        Instant incomingCutoff = Instant.now().minus(INCOMING_MAX_AGE);
+
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(spoolDir)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                if (!name.startsWith(INCOMING_PREFIX)) {
+                    enqueue(UUID.fromString(name));
+                } else if (Files.getLastModifiedTime(file).toInstant().isBefore(incomingCutoff)) {
+                    // Spooled by a request whose PROCESSING row never committed
+                    Files.deleteIfExists(file);
+                }
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            log.warn("Unable to scan sprite spool directory: {}", e.getMessage());
+        }
+    }
+
+    private void enqueue(UUID spriteId) {
+        if (!inFlight.add(spriteId)) {
+            return;
+        }
+        try {
+            spriteUploadExecutor.execute(() -> process(spriteId));
+        } catch (RejectedExecutionException e) {
+            // Stays spooled and is picked up by resumeSpooled
+            inFlight.remove(spriteId);
+        }
+    }
+
+    private void process(UUID spriteId) {
+        Path file = spoolDir.resolve(spriteId.toString());
+        try {
+            if (!isProcessing(spriteId)) {
+                return;
+            }
+
+            UploadResult uploadResult = imageUploader.stage(file, "sprites");
+            try {
+                transactionTemplate.executeWithoutResult(status -> markReady(spriteId, uploadResult));
+            } catch (RuntimeException e) {
+                imageUploader.discard(uploadResult.publicId());
+                throw e;
+            }
+        } catch (Exception e) {
+            log.warn("Unable to process image of sprite {}: {}", spriteId, e.getMessage());
+            transactionTemplate.executeWithoutResult(status -> markFailed(spriteId));
+        } finally {
+            deleteSpooled(file);
+            inFlight.remove(spriteId);
+        }
+    }
+
+    private void markReady(UUID spriteId, UploadResult uploadResult) {
+        Sprite sprite = spriteRepository.findWithDetailsById(spriteId)
+                .filter(found -> found.getStatus() == Sprite.Status.PROCESSING)
+                .orElseThrow(() -> new IllegalStateException("Sprite is no longer processing"));
+
+        sprite.setImageUrl(uploadResult.url());
+        sprite.setCloudinaryId(uploadResult.publicId());
+        sprite.setStatus(Sprite.Status.READY);
+
+        Sprite saved = spriteRepository.save(sprite);
+        spriteSearchProjector.project(saved);
+        imageUploader.confirm(uploadResult.publicId());
+        spriteCacheEvictions.evictDetailsAfterCommit(List.of(spriteId));
+        spriteCacheVersions.bumpAfterCommit(saved.getCategories().stream().map(Category::getId).toList());
+    }
+
+    private boolean isProcessing(UUID spriteId) {
+        return spriteRepository.findById(spriteId)
+                .map(sprite -> sprite.getStatus() == Sprite.Status.PROCESSING)
+                .orElse(false);
+    }
+
+    private void markFailed(UUID spriteId) {
+        spriteRepository.findById(spriteId)
+                .filter(sprite -> sprite.getStatus() == Sprite.Status.PROCESSING)
+                .ifPresent(sprite -> {
+                    sprite.setStatus(Sprite.Status.FAILED);
+                    spriteSearchProjector.project(spriteRepository.save(sprite));
+                    spriteCacheEvictions.evictDetailsAfterCommit(List.of(spriteId));
+                });
+    }
+
+    private void deleteSpooled(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Unable to delete spooled image {}: {}", file, e.getMessage());
+        }
+    }
+}
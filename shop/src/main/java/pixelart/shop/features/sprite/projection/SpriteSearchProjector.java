@@ -0,0 +1,66 @@
+package pixelart.shop.features.sprite.projection;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import pixelart.shop.features.category.entity.Category;
+import pixelart.shop.features.sprite.entity.Sprite;
+import pixelart.shop.features.sprite.entity.SpriteSearch;
+import pixelart.shop.features.sprite.repository.SpriteSearchRepository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.UUID;
+
+@Component
+@RequiredArgsConstructor
+@Transactional(propagation = Propagation.MANDATORY)
+public class SpriteSearchProjector {
+
+    private final SpriteSearchRepository spriteSearchRepository;
+
+    public void project(Sprite sprite) {
+        SpriteSearch row = spriteSearchRepository.findById(sprite.getId())
+                .orElseGet(SpriteSearch::new);
+
+        spriteSearchRepository.save(fill(row, sprite));
+    }
+
+    // Batch imports: every sprite is new and READY, so the rows are inserted without lookups
+    public void projectNew(Collection<Sprite> sprites) {
+        spriteSearchRepository.insertAll(sprites.stream()
+                .map(sprite -> fill(new SpriteSearch(), sprite))
+                .toList());
+    }
+
+    // Batch trash operations only flip deletedAt, mirroring the bulk update on sprites
+    public void softDeleteAll(Collection<UUID> spriteIds, LocalDateTime deletedAt) {
+        spriteSearchRepository.markDeleted(spriteIds, deletedAt);
+    }
+
+    public void restoreAll(Collection<UUID> spriteIds) {
+        spriteSearchRepository.markRestored(spriteIds);
+    }
+
+    public void remove(UUID spriteId) {
+        spriteSearchRepository.deleteById(spriteId);
+    }
+
+    public void removeAll(Collection<UUID> spriteIds) {
+        spriteSearchRepository.deleteAllByIdInBatch(spriteIds);
+    }
+
+    private SpriteSearch fill(SpriteSearch row, Sprite sprite) {
+        row.setId(sprite.getId());
+        row.setName(sprite.getName());
+        row.setSlug(sprite.getSlug());
+        row.setImageUrl(sprite.getImageUrl());
+        row.setStatus(sprite.getStatus());
+        row.setCategoryIds(sprite.getCategories().stream().map(Category::getId).toArray(UUID[]::new));
+        row.setCreatedBy(sprite.getCreatedBy().getId());
+        row.setCreatedAt(sprite.getCreatedAt());
+        row.setDeletedAt(sprite.getDeletedAt());
+        return row;
+    }
+}
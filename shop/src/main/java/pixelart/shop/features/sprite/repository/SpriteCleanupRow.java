@@ -0,0 +1,10 @@
+package pixelart.shop.features.sprite.repository;
+
+import java.util.UUID;
+
+public interface SpriteCleanupRow {
+
+    UUID getId();
+
+    String getCloudinaryId();
+}
@@ -6,11 +6,13 @@ import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import pixelart.shop.features.sprite.entity.Sprite;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -18,8 +20,48 @@ import java.util.UUID;
 @Repository
 public interface SpriteRepository extends JpaRepository<Sprite, UUID>, JpaSpecificationExecutor<Sprite> {
 
-    @Query("SELECT s FROM Sprite s WHERE s.deletedAt IS NOT NULL AND s.deletedAt < :cutoffDate")
-    List<Sprite> findInactiveBefore(LocalDateTime cutoffDate);
+    // Keyset over the partial index idx_sprites_trashed_id, ids only so a large backlog never sits in memory
+    @Query(value = """
+            SELECT id FROM sprites
+            WHERE deleted_at IS NOT NULL AND deleted_at < :cutoffDate AND id > :after
+            ORDER BY id
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<UUID> findInactiveIdsBefore(LocalDateTime cutoffDate, UUID after, int limit);
+
+    // Locks the rows so a concurrent restore either wins or waits for the purge
+    @Query(value = """
+            SELECT id, cloudinary_id AS cloudinaryId FROM sprites
+            WHERE id IN (:ids) AND deleted_at IS NOT NULL AND deleted_at < :cutoffDate
+            FOR UPDATE
+            """, nativeQuery = true)
+    List<SpriteCleanupRow> lockInactiveBefore(Collection<UUID> ids, LocalDateTime cutoffDate);
+
+    @Query(value = "SELECT DISTINCT category_id FROM sprite_categories WHERE sprite_id IN (:ids)", nativeQuery = true)
+    List<UUID> findCategoryIds(Collection<UUID> ids);
+
+    @Modifying
+    @Query("UPDATE Sprite s SET s.deletedAt = :deletedAt, s.updatedAt = :deletedAt WHERE s.id IN :ids AND s.deletedAt IS NULL")
+    int softDeleteAll(Collection<UUID> ids, LocalDateTime deletedAt);
+
+    @Modifying
+    @Query("UPDATE Sprite s SET s.deletedAt = NULL, s.updatedAt = :restoredAt WHERE s.id IN :ids AND s.deletedAt IS NOT NULL")
+    int restoreAll(Collection<UUID> ids, LocalDateTime restoredAt);
+
+    @Modifying
+    @Query(value = "DELETE FROM sprite_categories WHERE sprite_id IN (:ids)", nativeQuery = true)
+    void deleteCategoryLinks(Collection<UUID> ids);
+
+    @Query(value = "SELECT DISTINCT asset_pack_id FROM asset_pack_sprites WHERE sprite_id IN (:ids)", nativeQuery = true)
+    List<UUID> findAssetPackIds(Collection<UUID> ids);
+
+    @Modifying
+    @Query(value = "DELETE FROM asset_pack_sprites WHERE sprite_id IN (:ids)", nativeQuery = true)
+    int deleteAssetPackLinks(Collection<UUID> ids);
+
+    @Modifying
+    @Query(value = "DELETE FROM sprites WHERE id IN (:ids)", nativeQuery = true)
+    int deleteAllByIds(Collection<UUID> ids);
 
     @EntityGraph(attributePaths = {"categories", "createdBy"})
     @Query("SELECT s FROM Sprite s WHERE s.id = :id")
@@ -0,0 +1,25 @@
+package pixelart.shop.features.sprite.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import pixelart.shop.features.sprite.entity.SpriteSearch;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.UUID;
+
+@Repository
+public interface SpriteSearchRepository extends JpaRepository<SpriteSearch, UUID>, JpaSpecificationExecutor<SpriteSearch>,
+        SpriteSearchRepositoryCustom {
+
+    @Modifying
+    @Query("UPDATE SpriteSearch r SET r.deletedAt = :deletedAt WHERE r.id IN :ids AND r.deletedAt IS NULL")
+    int markDeleted(Collection<UUID> ids, LocalDateTime deletedAt);
+
+    @Modifying
+    @Query("UPDATE SpriteSearch r SET r.deletedAt = NULL WHERE r.id IN :ids")
+    int markRestored(Collection<UUID> ids);
+}
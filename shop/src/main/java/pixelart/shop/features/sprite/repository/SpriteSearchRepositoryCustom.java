@@ -0,0 +1,22 @@
+package pixelart.shop.features.sprite.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import pixelart.shop.features.sprite.dto.SpriteListResponse;
+import pixelart.shop.features.sprite.entity.SpriteSearch;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface SpriteSearchRepositoryCustom {
+
+    Slice<SpriteListResponse> findListItems(Specification<SpriteSearch> spec, Pageable pageable);
+
+    long countListItems(Specification<SpriteSearch> spec);
+
+    List<SpriteListResponse> findListItems(Specification<SpriteSearch> spec, Sort sort, int limit);
+
+    void insertAll(Collection<SpriteSearch> rows);
+}
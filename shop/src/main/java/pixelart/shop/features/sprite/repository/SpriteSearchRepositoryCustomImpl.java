@@ -0,0 +1,96 @@
+package pixelart.shop.features.sprite.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import pixelart.shop.features.sprite.dto.SpriteListResponse;
+import pixelart.shop.features.sprite.entity.SpriteSearch;
+
+import java.util.Collection;
+import java.util.List;
+
+// Selects straight into SpriteListResponse, so listing rows never become managed entities
+@RequiredArgsConstructor
+public class SpriteSearchRepositoryCustomImpl implements SpriteSearchRepositoryCustom {
+
+    private final EntityManager entityManager;
+
+    @Override
+    public Slice<SpriteListResponse> findListItems(Specification<SpriteSearch> spec, Pageable pageable) {
+        List<SpriteListResponse> rows = select(
+                spec,
+                pageable.getSort(),
+                (int) pageable.getOffset(),
+                pageable.getPageSize() + 1
+        );
+        boolean hasNext = rows.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? rows.subList(0, pageable.getPageSize()) : rows, pageable, hasNext);
+    }
+
+    @Override
+    public List<SpriteListResponse> findListItems(Specification<SpriteSearch> spec, Sort sort, int limit) {
+        return select(spec, sort, 0, limit);
+    }
+
+    // Rows for freshly inserted sprites: persist skips the per-row lookup that save() does for assigned ids
+    @Override
+    public void insertAll(Collection<SpriteSearch> rows) {
+        rows.forEach(entityManager::persist);
+    }
+
+    private List<SpriteListResponse> select(Specification<SpriteSearch> spec, Sort sort, int offset, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<SpriteListResponse> query = cb.createQuery(SpriteListResponse.class);
+        Root<SpriteSearch> root = query.from(SpriteSearch.class);
+
+        query.select(cb.construct(
+                SpriteListResponse.class,
+                root.get("id"),
+                root.get("name"),
+                root.get("slug"),
+                root.get("imageUrl"),
+                root.get("status"),
+                root.get("createdAt"),
+                root.get("deletedAt")
+        ));
+
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        // An explicit sort replaces any ordering the specification set (e.g. relevance)
+        if (sort.isSorted()) {
+            query.orderBy(QueryUtils.toOrders(sort, root, cb));
+        }
+
+        return entityManager.createQuery(query)
+                .setFirstResult(offset)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public long countListItems(Specification<SpriteSearch> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<SpriteSearch> root = query.from(SpriteSearch.class);
+
+        query.select(cb.count(root));
+
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+
+        return entityManager.createQuery(query).getSingleResult();
+    }
+}
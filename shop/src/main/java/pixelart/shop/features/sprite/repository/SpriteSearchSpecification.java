@@ -0,0 +1,101 @@
+package pixelart.shop.features.sprite.repository;
+
+import jakarta.persistence.criteria.*;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
+import org.springframework.data.jpa.domain.Specification;
+import pixelart.shop.features.sprite.entity.Sprite;
+import pixelart.shop.features.sprite.entity.SpriteSearch;
+import pixelart.shop.shared.util.SearchUtil;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+public class SpriteSearchSpecification {
+
+    // readyOnly hides sprites that are still processing or failed, which only their owner should see
+    public static Specification<SpriteSearch> filter(
+            List<UUID> categoryIds,
+            String keyword,
+            UUID createdBy,
+            boolean readyOnly
+    ) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+
+            predicates.add(cb.isNull(root.get("deletedAt")));
+
+            if (readyOnly) {
+                predicates.add(cb.equal(root.get("status"), Sprite.Status.READY));
+            }
+
+            if (createdBy != null) {
+                predicates.add(cb.equal(root.get("createdBy"), createdBy));
+            }
+            if (SearchUtil.hasKeyword(keyword)) {
+                predicates.add(SearchUtil.contains(cb, root.get("name"), keyword));
+            }
+            // category_ids && :ids, served by the GIN index on the array
+            if (categoryIds != null && !categoryIds.isEmpty()) {
+                predicates.add(((HibernateCriteriaBuilder) cb).arrayIntersects(
+                        root.get("categoryIds"),
+                        categoryIds.toArray(new UUID[0])
+                ));
+            }
+
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    public static Specification<SpriteSearch> trash(UUID createdBy) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+
+            predicates.add(cb.isNotNull(root.get("deletedAt")));
+
+            if (createdBy != null) {
+                predicates.add(cb.equal(root.get("createdBy"), createdBy));
+            }
+
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    public static Specification<SpriteSearch> orderByRelevance(String keyword) {
+        return (root, query, cb) -> {
+            // Skipped for the page count query
+            if (!Long.class.equals(query.getResultType())) {
+                query.orderBy(
+                        cb.desc(SearchUtil.similarity(cb, root.get("name"), keyword)),
+                        cb.desc(root.get("createdAt")),
+                        cb.asc(root.get("id"))
+                );
+            }
+            return cb.conjunction();
+        };
+    }
+
+    public static <K extends Comparable<? super K>> Specification<SpriteSearch> after(
+            String sortBy,
+            K value,
+            UUID id,
+            boolean descending
+    ) {
+        return (root, query, cb) -> {
+            Path<K> key = root.get(sortBy);
+            Path<UUID> idPath = root.get("id");
+
+            // key <= value keeps the range scan on the sort index, the OR breaks ties by id
+            if (descending) {
+                return cb.and(
+                        cb.lessThanOrEqualTo(key, value),
+                        cb.or(cb.lessThan(key, value), cb.lessThan(idPath, id))
+                );
+            }
+            return cb.and(
+                    cb.greaterThanOrEqualTo(key, value),
+                    cb.or(cb.greaterThan(key, value), cb.greaterThan(idPath, id))
+            );
+        };
+    }
+}
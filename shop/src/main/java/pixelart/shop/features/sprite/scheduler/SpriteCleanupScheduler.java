@@ -1,79 +1,163 @@
 package pixelart.shop.features.sprite.scheduler;
 
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
-import pixelart.shop.features.sprite.SpriteServiceImpl;
-import pixelart.shop.features.sprite.entity.Sprite;
+import pixelart.shop.features.sprite.cleanup.SpriteTrashPurger;
+import pixelart.shop.features.sprite.repository.SpriteCleanupRow;
 import pixelart.shop.features.sprite.repository.SpriteRepository;
+import pixelart.shop.shared.infrastructure.lock.RedisLock;
+import pixelart.shop.shared.infrastructure.storage.DeleteResult;
+import pixelart.shop.shared.infrastructure.storage.FileStorage;
 
-import java.io.IOException;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
-
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Walks expired trash by id in chunks: each chunk is deleted in one transaction, then its images are
+// removed in bulk batches in parallel (bounded by the executor size) while the next chunk is read.
+// Each chunk evicts its own sprites and packs after commit.
 @Slf4j
 @Component
-@RequiredArgsConstructor
 public class SpriteCleanupScheduler {
 
+    private static final String LOCK_NAME = "sprite-cleanup";
+    private static final UUID FIRST_ID = new UUID(0, 0);
+    private static final int STORAGE_BATCH_SIZE = 100;
+
     private final SpriteRepository spriteRepository;
-    private final SpriteServiceImpl spriteService;
+    private final SpriteTrashPurger spriteTrashPurger;
+    private final FileStorage fileStorage;
+    private final RedisLock redisLock;
+    private final Executor storageDeleteExecutor;
+    private final int parallelism;
+    private final int chunkSize;
+    private final Duration lockTtl;
+
+    private final Counter deleted;
+    private final Counter storageFailures;
+    private final Timer duration;
+
+    public SpriteCleanupScheduler(
+            SpriteRepository spriteRepository,
+            SpriteTrashPurger spriteTrashPurger,
+            FileStorage fileStorage,
+            RedisLock redisLock,
+            MeterRegistry meterRegistry,
+            @Qualifier("storageDeleteExecutor") Executor storageDeleteExecutor,
+            @Value("${shop.storage.delete.parallelism:8}") int parallelism,
+            @Value("${shop.sprite.cleanup.chunk-size:500}") int chunkSize,
+            @Value("${shop.sprite.cleanup.lock-ttl:3600000}") long lockTtl
+    ) {
+        this.spriteRepository = spriteRepository;
+        this.spriteTrashPurger = spriteTrashPurger;
+        this.fileStorage = fileStorage;
+        this.redisLock = redisLock;
+        this.storageDeleteExecutor = storageDeleteExecutor;
+        this.parallelism = parallelism;
+        this.chunkSize = chunkSize;
+        this.lockTtl = Duration.ofMillis(lockTtl);
+
+        this.deleted = Counter.builder("sprites.cleanup.deleted")
+                .description("Trashed sprites permanently deleted by the cleanup job")
+                .register(meterRegistry);
+        this.storageFailures = Counter.builder("sprites.cleanup.storage_failures")
+                .description("Images the cleanup job failed to delete from storage")
+                .register(meterRegistry);
+        this.duration = Timer.builder("sprites.cleanup.duration")
+                .register(meterRegistry);
+    }
 
     @Scheduled(cron = "0 0 2 * * *")
     public void cleanupOldDeletedSprites() {
-
         log.info("Starting cleanup job for old deleted sprites...");
+        runExclusively(LocalDateTime.now().minusDays(30));
+    }
 
-        LocalDateTime cutoffDate = LocalDateTime.now().minusDays(30);
-
-        List<Sprite> oldDeletedSprites =
-                spriteRepository.findInactiveBefore(cutoffDate);
-
-        int successCount = 0;
-        int failureCount = 0;
-
-        for (Sprite sprite : oldDeletedSprites) {
-            try {
-                spriteService.hardDelete(sprite.getId());
-                successCount++;
-            } catch (IOException e) {
-                log.error(
-                        "Failed to permanently delete sprite: {} (ID: {})",
-                        sprite.getName(),
-                        sprite.getId(),
-                        e
-                );
-                failureCount++;
-            }
+    public void manualCleanup(int daysOld) {
+        log.info("Starting manual cleanup for sprites older than {} days...", daysOld);
+        runExclusively(LocalDateTime.now().minusDays(daysOld));
+    }
+
+    private void runExclusively(LocalDateTime cutoffDate) {
+        Optional<String> token = redisLock.tryAcquire(LOCK_NAME, lockTtl);
+        if (token.isEmpty()) {
+            log.info("Sprite cleanup is already running on another node, skipping");
+            return;
         }
 
-        log.info(
-                "Cleanup job completed. Success: {}, Failed: {}, Total: {}",
-                successCount,
-                failureCount,
-                oldDeletedSprites.size()
-        );
+        try {
+            duration.record(() -> cleanup(cutoffDate));
+        } finally {
+            redisLock.release(LOCK_NAME, token.get());
+        }
     }
 
-    public void manualCleanup(int daysOld) {
-
-        log.info("Starting manual cleanup for sprites older than {} days...", daysOld);
+    private void cleanup(LocalDateTime cutoffDate) {
+        Semaphore inFlight = new Semaphore(parallelism);
+        AtomicLong failures = new AtomicLong();
+        UUID after = FIRST_ID;
+        long total = 0;
+        List<UUID> ids;
+
+        do {
+            ids = spriteRepository.findInactiveIdsBefore(cutoffDate, after, chunkSize);
+            if (ids.isEmpty()) {
+                break;
+            }
+            after = ids.get(ids.size() - 1);
+
+            List<SpriteCleanupRow> purged = spriteTrashPurger.purgeInactive(ids, cutoffDate);
+            deleted.increment(purged.size());
+            total += purged.size();
+
+            List<String> publicIds = purged.stream()
+                    .map(SpriteCleanupRow::getCloudinaryId)
+                    .filter(Objects::nonNull)
+                    .toList();
+
+            for (int from = 0; from < publicIds.size(); from += STORAGE_BATCH_SIZE) {
+                List<String> batch = publicIds.subList(from, Math.min(from + STORAGE_BATCH_SIZE, publicIds.size()));
+                inFlight.acquireUninterruptibly();
+                storageDeleteExecutor.execute(() -> {
+                    try {
+                        failures.addAndGet(deleteImages(batch));
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            }
 
-        LocalDateTime cutoffDate = LocalDateTime.now().minusDays(daysOld);
+            log.info("Sprite cleanup progress: {} deleted", total);
+        } while (ids.size() == chunkSize);
 
-        List<Sprite> oldDeletedSprites =
-                spriteRepository.findInactiveBefore(cutoffDate);
+        // Wait for the last storage deletions to finish
+        inFlight.acquireUninterruptibly(parallelism);
 
-        log.info("Found {} sprites to cleanup", oldDeletedSprites.size());
+        log.info(
+                "Cleanup job completed. Deleted: {}, Storage failures: {}",
+                total,
+                failures.get()
+        );
+    }
 
-        for (Sprite sprite : oldDeletedSprites) {
-            try {
-                spriteService.hardDelete(sprite.getId());
-                log.info("Cleaned up sprite: {} (ID: {})", sprite.getName(), sprite.getId());
-            } catch (IOException e) {
-                log.error("Failed to cleanup sprite: {}", sprite.getId(), e);
-            }
+    private int deleteImages(List<String> publicIds) {
+        DeleteResult result = fileStorage.deleteAll(publicIds);
+        if (!result.failed().isEmpty()) {
+            storageFailures.increment(result.failed().size());
+            log.warn("Unable to delete {} images: {}", result.failed().size(), result.failed());
         }
+        return result.failed().size();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,228 @@
+package pixelart.shop.features.upload;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import pixelart.shop.features.upload.entity.BlobReference;
+import pixelart.shop.features.upload.entity.StoredBlob;
+import pixelart.shop.features.upload.repository.BlobReferenceRepository;
+import pixelart.shop.features.upload.repository.StoredBlobRepository;
+import pixelart.shop.shared.infrastructure.storage.DeleteResult;
+import pixelart.shop.shared.infrastructure.storage.FileStorage;
+import pixelart.shop.shared.infrastructure.storage.UploadResult;
+import pixelart.shop.shared.util.HashUtil;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+// Content-hash deduplication in front of the storage backend. Every public id handed out is a
+// BlobReference; identical bytes share one StoredBlob and skip the upload, and the stored object is
+// only deleted when its last reference goes. That reference is kept until the backend confirms the
+// delete, so retries reach the object. Bookkeeping runs in its own transactions because callers
+// upload outside transactions and delete from after-commit hooks.
+@Service
+@Primary
+@ConditionalOnProperty(name = "shop.storage.dedup.enabled", havingValue = "true", matchIfMissing = true)
+public class DeduplicatingFileStorage implements FileStorage {
+
+    private final FileStorage backend;
+    private final StoredBlobRepository storedBlobRepository;
+    private final BlobReferenceRepository blobReferenceRepository;
+    private final TransactionTemplate bookkeeping;
+
+    public DeduplicatingFileStorage(
+            @Qualifier(FileStorage.BACKEND) FileStorage backend,
+            StoredBlobRepository storedBlobRepository,
+            BlobReferenceRepository blobReferenceRepository,
+            PlatformTransactionManager transactionManager
+    ) {
+        this.backend = backend;
+        this.storedBlobRepository = storedBlobRepository;
+        this.blobReferenceRepository = blobReferenceRepository;
+        this.bookkeeping = new TransactionTemplate(transactionManager);
+        this.bookkeeping.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @Override
+    public UploadResult upload(byte[] bytes, String folder) throws IOException {
+        String hash = HexFormat.of().formatHex(HashUtil.newSha256().digest(bytes));
+        Optional<UploadResult> existing = reuse(hash, folder + "/" + UUID.randomUUID());
+        if (existing.isPresent()) {
+            return existing.get();
+        }
+        return register(hash, backend.upload(bytes, folder));
+    }
+
+    @Override
+    public UploadResult upload(InputStream content, long size, String contentType, String folder) throws IOException {
+        return store(content, folder + "/" + UUID.randomUUID(), spooled -> {
+            try (InputStream in = Files.newInputStream(spooled)) {
+                return backend.upload(in, size, contentType, folder);
+            }
+        });
+    }
+
+    @Override
+    public UploadResult uploadAs(String publicId, InputStream content, long size, String contentType) throws IOException {
+        return store(content, publicId, spooled -> {
+            try (InputStream in = Files.newInputStream(spooled)) {
+                return backend.uploadAs(publicId, in, size, contentType);
+            }
+        });
+    }
+
+    @Override
+    public void delete(String publicId) throws IOException {
+        Optional<String> orphan = bookkeeping.execute(status -> release(publicId));
+        if (orphan != null && orphan.isPresent()) {
+            backend.delete(orphan.get());
+            forget(List.of(publicId));
+        }
+    }
+
+    @Override
+    public DeleteResult deleteAll(Collection<String> publicIds) {
+        // Public id -> stored object that has to go with it
+        Map<String, String> orphans = bookkeeping.execute(status -> {
+            Map<String, String> released = new HashMap<>();
+            for (String publicId : publicIds) {
+                release(publicId).ifPresent(objectId -> released.put(publicId, objectId));
+            }
+            return released;
+        });
+
+        DeleteResult result = orphans.isEmpty()
+                ? new DeleteResult(List.of(), List.of())
+                : backend.deleteAll(orphans.values());
+
+        List<String> deleted = new ArrayList<>();
+        List<String> failed = new ArrayList<>();
+        List<String> confirmed = new ArrayList<>();
+        for (String publicId : publicIds) {
+            String objectId = orphans.get(publicId);
+            if (objectId != null && result.failed().contains(objectId)) {
+                failed.add(publicId);
+            } else {
+                deleted.add(publicId);
+                if (objectId != null) {
+                    confirmed.add(publicId);
+                }
+            }
+        }
+
+        if (!confirmed.isEmpty()) {
+            forget(confirmed);
+        }
+        return new DeleteResult(deleted, failed);
+    }
+
+    private UploadResult store(InputStream content, String publicId, Upload upload) throws IOException {
+        Path spooled = Files.createTempFile("dedup-", null);
+        try {
+            String hash = spoolAndHash(content, spooled);
+
+            Optional<UploadResult> existing = reuse(hash, publicId);
+            if (existing.isPresent()) {
+                return existing.get();
+            }
+            return register(hash, upload.run(spooled));
+        } finally {
+            Files.deleteIfExists(spooled);
+        }
+    }
+
+    // Takes a reference on already stored content, skipping the upload
+    private Optional<UploadResult> reuse(String hash, String publicId) {
+        return bookkeeping.execute(status -> storedBlobRepository.findById(hash)
+                .filter(blob -> storedBlobRepository.acquire(hash) == 1)
+                .map(blob -> {
+                    blobReferenceRepository.save(BlobReference.builder().publicId(publicId).hash(hash).build());
+                    return new UploadResult(blob.getUrl(), publicId);
+                }));
+    }
+
+    private UploadResult register(String hash, UploadResult uploaded) throws IOException {
+        StoredBlob blob = bookkeeping.execute(status -> {
+            storedBlobRepository.register(hash, uploaded.publicId(), uploaded.url());
+            blobReferenceRepository.save(BlobReference.builder().publicId(uploaded.publicId()).hash(hash).build());
+            return storedBlobRepository.findById(hash).orElseThrow();
+        });
+
+        if (blob.getPublicId().equals(uploaded.publicId())) {
+            return uploaded;
+        }
+
+        // A concurrent upload of the same bytes registered first; this copy is redundant
+        backend.delete(uploaded.publicId());
+        return new UploadResult(blob.getUrl(), uploaded.publicId());
+    }
+
+    // Drops one reference and returns the stored object to delete once nothing points at it
+    private Optional<String> release(String publicId) {
+        Optional<BlobReference> reference = blobReferenceRepository.findById(publicId);
+        if (reference.isEmpty()) {
+            // Uploaded before deduplication, unless it is the object behind a live blob
+            return storedBlobRepository.findByPublicId(publicId).isPresent()
+                    ? Optional.empty()
+                    : Optional.of(publicId);
+        }
+
+        BlobReference released = reference.get();
+        if (released.getPendingDeleteId() != null) {
+            // Already released by an attempt whose delete failed, only the delete is repeated
+            return Optional.of(released.getPendingDeleteId());
+        }
+
+        storedBlobRepository.release(released.getHash(), 1);
+        Optional<StoredBlob> orphan = storedBlobRepository.findById(released.getHash())
+                .filter(blob -> blob.getRefCount() <= 0);
+        if (orphan.isEmpty()) {
+            blobReferenceRepository.deleteById(publicId);
+            return Optional.empty();
+        }
+
+        // The blob row goes now, so new uploads of the same bytes store a fresh object instead of
+        // taking a reference on the one being deleted
+        String objectId = orphan.get().getPublicId();
+        storedBlobRepository.delete(orphan.get());
+        released.setPendingDeleteId(objectId);
+        blobReferenceRepository.save(released);
+        return Optional.of(objectId);
+    }
+
+    // The backend confirmed the delete, the references waiting on it can go
+    private void forget(Collection<String> publicIds) {
+        bookkeeping.executeWithoutResult(status -> blobReferenceRepository.deleteReleased(publicIds));
+    }
+
+    private String spoolAndHash(InputStream content, Path target) throws IOException {
+        MessageDigest digest = HashUtil.newSha256();
+        try (InputStream in = new DigestInputStream(content, digest);
+             OutputStream out = Files.newOutputStream(target)) {
+            in.transferTo(out);
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    @FunctionalInterface
+    private interface Upload {
+        UploadResult run(Path spooled) throws IOException;
+    }
+}
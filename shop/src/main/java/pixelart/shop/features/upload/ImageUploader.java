@@ -0,0 +1,80 @@
+package pixelart.shop.features.upload;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.multipart.MultipartFile;
+import pixelart.shop.features.upload.entity.PendingUpload;
+import pixelart.shop.features.upload.repository.PendingUploadRepository;
+import pixelart.shop.shared.infrastructure.storage.FileStorage;
+import pixelart.shop.shared.infrastructure.storage.UploadResult;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.UUID;
+
+// Two-phase image upload: stage() records the public id and uploads with no transaction open,
+// the write that references the image calls confirm() in its own transaction.
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ImageUploader {
+
+    private final FileStorage fileStorage;
+    private final PendingUploadRepository pendingUploadRepository;
+
+    @Transactional(propagation = Propagation.NEVER)
+    public UploadResult stage(MultipartFile file, String folder) throws IOException {
+        String publicId = reserve(folder);
+
+        try (InputStream content = file.getInputStream()) {
+            return fileStorage.uploadAs(publicId, content, file.getSize(), file.getContentType());
+        } catch (IOException | RuntimeException e) {
+            discard(publicId);
+            throw e;
+        }
+    }
+
+    @Transactional(propagation = Propagation.NEVER)
+    public UploadResult stage(Path file, String folder) throws IOException {
+        String publicId = reserve(folder);
+
+        try (InputStream content = Files.newInputStream(file)) {
+            return fileStorage.uploadAs(publicId, content, Files.size(file), Files.probeContentType(file));
+        } catch (IOException | RuntimeException e) {
+            discard(publicId);
+            throw e;
+        }
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void confirm(String publicId) {
+        pendingUploadRepository.deleteByPublicId(publicId);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void confirmAll(Collection<String> publicIds) {
+        pendingUploadRepository.deleteByPublicIdIn(publicIds);
+    }
+
+    private String reserve(String folder) {
+        String publicId = folder + "/" + UUID.randomUUID();
+        pendingUploadRepository.save(PendingUpload.builder().publicId(publicId).build());
+        return publicId;
+    }
+
+    // Best effort: whatever is left behind is picked up by PendingUploadReconciler
+    public void discard(String publicId) {
+        try {
+            fileStorage.delete(publicId);
+            pendingUploadRepository.deleteByPublicId(publicId);
+        } catch (Exception e) {
+            log.warn("Unable to discard staged image ({}): {}", publicId, e.getMessage());
+        }
+    }
+}
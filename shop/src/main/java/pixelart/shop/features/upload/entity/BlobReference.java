@@ -0,0 +1,25 @@
+package pixelart.shop.features.upload.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+// A public id handed out to callers, resolved to the stored blob holding its content
+@Entity
+@Table(name = "blob_references")
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BlobReference {
+
+    @Id
+    private String publicId;
+
+    @Column(nullable = false, length = 64)
+    private String hash;
+
+    // Set when this was the last reference: the stored object still to be deleted. The row stays
+    // until the storage backend confirms, so a retried delete goes to the object and not this id.
+    private String pendingDeleteId;
+}
@@ -0,0 +1,30 @@
+package pixelart.shop.features.upload.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// An image uploaded ahead of the transaction that references it. The row is deleted in that
+// transaction; rows left behind point at orphaned blobs and are cleaned up by the reconciler.
+@Entity
+@Table(name = "pending_uploads")
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PendingUpload {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(unique = true, nullable = false)
+    private String publicId;
+
+    @CreationTimestamp
+    private LocalDateTime createdAt;
+}
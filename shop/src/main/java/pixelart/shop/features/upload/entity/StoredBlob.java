@@ -0,0 +1,36 @@
+package pixelart.shop.features.upload.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+// One physical object in file storage per distinct content. publicId is the storage id of that object;
+// refCount is the number of BlobReference rows pointing at it.
+@Entity
+@Table(name = "stored_blobs")
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StoredBlob {
+
+    // Hex SHA-256 of the content
+    @Id
+    @Column(length = 64)
+    private String hash;
+
+    @Column(unique = true, nullable = false)
+    private String publicId;
+
+    @Column(nullable = false, length = 500)
+    private String url;
+
+    @Column(nullable = false)
+    private int refCount;
+
+    @CreationTimestamp
+    private LocalDateTime createdAt;
+}
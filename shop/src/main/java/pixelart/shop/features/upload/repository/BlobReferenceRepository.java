@@ -0,0 +1,17 @@
+package pixelart.shop.features.upload.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import pixelart.shop.features.upload.entity.BlobReference;
+
+import java.util.Collection;
+
+@Repository
+public interface BlobReferenceRepository extends JpaRepository<BlobReference, String> {
+
+    @Modifying
+    @Query("DELETE FROM BlobReference r WHERE r.publicId IN :publicIds AND r.pendingDeleteId IS NOT NULL")
+    int deleteReleased(Collection<String> publicIds);
+}
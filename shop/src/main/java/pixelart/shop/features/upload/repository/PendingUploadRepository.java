@@ -0,0 +1,31 @@
+package pixelart.shop.features.upload.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import pixelart.shop.features.upload.entity.PendingUpload;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface PendingUploadRepository extends JpaRepository<PendingUpload, UUID> {
+
+    @Query("SELECT p.publicId FROM PendingUpload p WHERE p.createdAt < :createdBefore ORDER BY p.createdAt")
+    List<String> findPublicIdsCreatedBefore(LocalDateTime createdBefore, Pageable pageable);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM PendingUpload p WHERE p.publicId = :publicId")
+    int deleteByPublicId(String publicId);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM PendingUpload p WHERE p.publicId IN :publicIds")
+    int deleteByPublicIdIn(Collection<String> publicIds);
+}
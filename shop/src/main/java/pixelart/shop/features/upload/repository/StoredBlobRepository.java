@@ -0,0 +1,32 @@
+package pixelart.shop.features.upload.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import pixelart.shop.features.upload.entity.StoredBlob;
+
+import java.util.Optional;
+
+@Repository
+public interface StoredBlobRepository extends JpaRepository<StoredBlob, String> {
+
+    Optional<StoredBlob> findByPublicId(String publicId);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE StoredBlob b SET b.refCount = b.refCount + 1 WHERE b.hash = :hash")
+    int acquire(String hash);
+
+    // Registers a fresh upload, or takes a reference on the blob a concurrent upload registered first
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = """
+            INSERT INTO stored_blobs (hash, public_id, url, ref_count, created_at)
+            VALUES (:hash, :publicId, :url, 1, now())
+            ON CONFLICT (hash) DO UPDATE SET ref_count = stored_blobs.ref_count + 1
+            """, nativeQuery = true)
+    void register(String hash, String publicId, String url);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE StoredBlob b SET b.refCount = b.refCount - :count WHERE b.hash = :hash")
+    int release(String hash, int count);
+}
@@ -0,0 +1,93 @@
+package pixelart.shop.features.upload.scheduler;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import pixelart.shop.features.upload.repository.PendingUploadRepository;
+import pixelart.shop.shared.infrastructure.lock.RedisLock;
+import pixelart.shop.shared.infrastructure.storage.DeleteResult;
+import pixelart.shop.shared.infrastructure.storage.FileStorage;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+// Deletes images whose referencing write never committed. The grace period has to outlast
+// the slowest upload plus its transaction, younger rows may still be confirmed.
+@Slf4j
+@Component
+public class PendingUploadReconciler {
+
+    private static final String LOCK_NAME = "pending-upload-reconcile";
+
+    private final PendingUploadRepository pendingUploadRepository;
+    private final FileStorage fileStorage;
+    private final RedisLock redisLock;
+    private final Counter reconciled;
+    private final Duration grace;
+    private final int batchSize;
+
+    public PendingUploadReconciler(
+            PendingUploadRepository pendingUploadRepository,
+            FileStorage fileStorage,
+            RedisLock redisLock,
+            MeterRegistry meterRegistry,
+            @Value("${shop.upload.reconcile.grace:900000}") long grace,
+            @Value("${shop.upload.reconcile.batch-size:100}") int batchSize
+    ) {
+        this.pendingUploadRepository = pendingUploadRepository;
+        this.fileStorage = fileStorage;
+        this.redisLock = redisLock;
+        this.reconciled = Counter.builder("uploads.orphans.deleted")
+                .description("Staged images deleted because their write never committed")
+                .register(meterRegistry);
+        this.grace = Duration.ofMillis(grace);
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${shop.upload.reconcile.interval:600000}")
+    public void reconcile() {
+        Optional<String> token = redisLock.tryAcquire(LOCK_NAME, grace);
+        if (token.isEmpty()) {
+            return;
+        }
+
+        try {
+            LocalDateTime createdBefore = LocalDateTime.now().minus(grace);
+            long total = 0;
+            List<String> publicIds;
+
+            do {
+                publicIds = pendingUploadRepository.findPublicIdsCreatedBefore(
+                        createdBefore, PageRequest.of(0, batchSize));
+                if (publicIds.isEmpty()) {
+                    break;
+                }
+
+                DeleteResult result = fileStorage.deleteAll(publicIds);
+                if (!result.deleted().isEmpty()) {
+                    pendingUploadRepository.deleteByPublicIdIn(result.deleted());
+                }
+                reconciled.increment(result.deleted().size());
+                total += result.deleted().size();
+
+                // Failed ids stay pending for the next run, stop instead of re-reading them
+                if (!result.failed().isEmpty()) {
+                    log.warn("Unable to delete {} orphaned images, retrying next run", result.failed().size());
+                    break;
+                }
+            } while (publicIds.size() == batchSize);
+
+            if (total > 0) {
+                log.info("Pending upload reconcile completed. Orphaned images deleted: {}", total);
+            }
+        } finally {
+            redisLock.release(LOCK_NAME, token.get());
+        }
+    }
+}
@@ -2,18 +2,21 @@ package pixelart.shop.features.user;
 
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
-import org.springframework.security.core.Authentication;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import pixelart.shop.features.auth.principal.AuthenticatedUser;
 import pixelart.shop.features.user.dto.UpdateProfileRequest;
 import pixelart.shop.features.user.dto.UserDto;
-import pixelart.shop.features.user.entity.User;
+import pixelart.shop.shared.dto.CountMode;
 import pixelart.shop.shared.response.ApiResponse;
 
+import java.util.UUID;
+
 @RestController
 @RequestMapping("/api/v1/users")
 @RequiredArgsConstructor
@@ -23,22 +26,33 @@ public class UserController {
 
     @GetMapping
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<ApiResponse<Page<UserDto>>> getAll(
+    public ResponseEntity<ApiResponse<Slice<UserDto>>> getAll(
             @RequestParam(required = false) String keyword,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "12") int size
+            @RequestParam(defaultValue = "12") int size,
+            @RequestParam(defaultValue = "exact") String count
+    ) {
+        return ResponseEntity.ok(
+                ApiResponse.success(userService.getAll(keyword, page, size, CountMode.from(count)))
+        );
+    }
+
+    @PatchMapping("/{id}/active")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<UserDto>> setActive(
+            @PathVariable UUID id,
+            @RequestParam boolean active
     ) {
         return ResponseEntity.ok(
-                ApiResponse.success(userService.getAll(keyword, page, size))
+                ApiResponse.success(userService.setActive(id, active))
         );
     }
 
     @PutMapping("/me")
     public ResponseEntity<ApiResponse<UserDto>> updateProfile(
             @Valid @RequestBody UpdateProfileRequest request,
-            Authentication authentication
+            @AuthenticationPrincipal AuthenticatedUser currentUser
     ) {
-        User currentUser = (User) authentication.getPrincipal();
         UserDto updated = userService.updateProfile(currentUser, request);
         return ResponseEntity.ok(
                 ApiResponse.success("Profile updated.", updated)
@@ -48,9 +62,8 @@ public class UserController {
     @PatchMapping(value = "/me/avatar", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     public ResponseEntity<ApiResponse<UserDto>> updateAvatar(
             @RequestPart("file") MultipartFile file,
-            Authentication authentication
+            @AuthenticationPrincipal AuthenticatedUser currentUser
     ) {
-        User currentUser = (User) authentication.getPrincipal();
         UserDto updated = userService.updateAvatar(currentUser, file);
         return ResponseEntity.ok(
                 ApiResponse.success("Avatar updated.", updated)
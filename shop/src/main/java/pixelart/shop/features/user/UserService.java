@@ -1,13 +1,18 @@
 package pixelart.shop.features.user;
 
-import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 import org.springframework.web.multipart.MultipartFile;
+import pixelart.shop.features.auth.principal.AuthenticatedUser;
 import pixelart.shop.features.user.dto.UpdateProfileRequest;
 import pixelart.shop.features.user.dto.UserDto;
-import pixelart.shop.features.user.entity.User;
+import pixelart.shop.shared.dto.CountMode;
+
+import java.util.UUID;
 
 public interface UserService {
-    Page<UserDto> getAll(String keyword, int page, int size);
-    UserDto updateProfile(User currentUser, UpdateProfileRequest request);
-    UserDto updateAvatar(User currentUser, MultipartFile file);
-}
\ No newline at end of file
+    Slice<UserDto> getAll(String keyword, int page, int size, CountMode count);
+    UserDto getMe(AuthenticatedUser currentUser);
+    UserDto updateProfile(AuthenticatedUser currentUser, UpdateProfileRequest request);
+    UserDto updateAvatar(AuthenticatedUser currentUser, MultipartFile file);
+    UserDto setActive(UUID id, boolean active);
+}
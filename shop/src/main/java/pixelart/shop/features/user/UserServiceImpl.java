@@ -1,21 +1,29 @@
 package pixelart.shop.features.user;
 
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
+import pixelart.shop.features.auth.principal.AuthenticatedUser;
+import pixelart.shop.features.auth.principal.TokenVersions;
+import pixelart.shop.features.upload.ImageUploader;
+import pixelart.shop.features.user.cache.UserPrincipalCache;
 import pixelart.shop.features.user.dto.UpdateProfileRequest;
 import pixelart.shop.features.user.dto.UserDto;
 import pixelart.shop.features.user.entity.User;
 import pixelart.shop.features.user.repository.UserRepository;
+import pixelart.shop.shared.dto.CountMode;
 import pixelart.shop.shared.exception.AppException;
-import pixelart.shop.shared.infrastructure.storage.FileStorage;
+import pixelart.shop.shared.infrastructure.pagination.PageCounter;
 import pixelart.shop.shared.infrastructure.storage.UploadResult;
 
 import java.io.IOException;
+import java.util.UUID;
 
 @Service
 @RequiredArgsConstructor
@@ -23,36 +31,55 @@ import java.io.IOException;
 public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
-    private final FileStorage fileStorage;
+    private final ImageUploader imageUploader;
+    private final TransactionTemplate transactionTemplate;
+    private final PageCounter pageCounter;
+    private final UserPrincipalCache userPrincipalCache;
+    private final TokenVersions tokenVersions;
 
     @Override
-    public Page<UserDto> getAll(String keyword, int page, int size) {
+    public Slice<UserDto> getAll(String keyword, int page, int size, CountMode count) {
         PageRequest pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "createdAt"));
-        return userRepository.searchByKeyword(keyword, pageable).map(UserDto::from);
+        return pageCounter.complete(
+                userRepository.sliceByKeyword(keyword, pageable).map(UserDto::from),
+                pageable,
+                count,
+                "users|" + keyword,
+                () -> userRepository.countByKeyword(keyword)
+        );
+    }
+
+    @Override
+    public UserDto getMe(AuthenticatedUser currentUser) {
+        return userPrincipalCache.get(currentUser.id())
+                .map(UserDto::from)
+                .orElseThrow(() -> AppException.notFound("User does not exist"));
     }
 
     @Override
     @Transactional
-    public UserDto updateProfile(User currentUser, UpdateProfileRequest request) {
+    public UserDto updateProfile(AuthenticatedUser currentUser, UpdateProfileRequest request) {
         String newUsername = request.getUsername().trim();
+        User user = loadUser(currentUser.id());
 
         boolean usernameTaken = userRepository.existsByUsername(newUsername)
-                && !newUsername.equals(currentUser.getNickname());
+                && !newUsername.equals(user.getNickname());
 
         if (usernameTaken) {
             throw AppException.conflict("Username already taken");
         }
 
-        currentUser.setUsername(newUsername);
-        currentUser.setFullName(request.getFullName().trim());
+        user.setUsername(newUsername);
+        user.setFullName(request.getFullName().trim());
 
-        User saved = userRepository.save(currentUser);
+        User saved = userRepository.save(user);
+        userPrincipalCache.evictAfterCommit(saved.getId());
         return UserDto.from(saved);
     }
 
     @Override
-    @Transactional
-    public UserDto updateAvatar(User currentUser, MultipartFile file) {
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public UserDto updateAvatar(AuthenticatedUser currentUser, MultipartFile file) {
         if (file.isEmpty()) {
             throw AppException.badRequest("File is empty");
         }
@@ -62,14 +89,45 @@ public class UserServiceImpl implements UserService {
             throw AppException.badRequest("Only image files are allowed");
         }
 
+        UploadResult result;
         try {
-            byte[] bytes = file.getBytes();
-            UploadResult result = fileStorage.upload(bytes, "avatars");
-            currentUser.setAvatarUrl(result.url());
-            User saved = userRepository.save(currentUser);
-            return UserDto.from(saved);
+            result = imageUploader.stage(file, "avatars");
         } catch (IOException e) {
             throw AppException.badRequest("Failed to upload avatar: " + e.getMessage());
         }
+
+        try {
+            return transactionTemplate.execute(status -> {
+                User user = loadUser(currentUser.id());
+                user.setAvatarUrl(result.url());
+                User saved = userRepository.save(user);
+                userPrincipalCache.evictAfterCommit(saved.getId());
+                imageUploader.confirm(result.publicId());
+                return UserDto.from(saved);
+            });
+        } catch (RuntimeException e) {
+            imageUploader.discard(result.publicId());
+            throw e;
+        }
+    }
+
+    @Override
+    @Transactional
+    public UserDto setActive(UUID id, boolean active) {
+        User user = loadUser(id);
+        user.setActive(active);
+        if (!active) {
+            user.setTokenVersion(user.getTokenVersion() + 1);
+            tokenVersions.revokeAfterCommit(id, user.getTokenVersion());
+        }
+
+        User saved = userRepository.save(user);
+        userPrincipalCache.evictAfterCommit(saved.getId());
+        return UserDto.from(saved);
+    }
+
+    private User loadUser(UUID id) {
+        return userRepository.findById(id)
+                .orElseThrow(() -> AppException.notFound("User does not exist"));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,72 @@
+package pixelart.shop.features.user.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import pixelart.shop.features.user.entity.User;
+import pixelart.shop.features.user.repository.UserRepository;
+import pixelart.shop.shared.infrastructure.cache.CacheInvalidationBus;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+
+// Users resolved lazily for read endpoints such as /auth/me. Cached instances are shared between requests,
+// so write paths must load their own copy and call evictAfterCommit instead of mutating a cached one.
+@Component
+public class UserPrincipalCache {
+
+    private static final String NAME = "user-principals";
+
+    private final UserRepository userRepository;
+    private final CacheInvalidationBus invalidationBus;
+    private final Cache<UUID, User> cache;
+
+    public UserPrincipalCache(
+            UserRepository userRepository,
+            CacheInvalidationBus invalidationBus,
+            @Value("${shop.auth.principal-cache.maximum-size:10000}") long maximumSize,
+            @Value("${shop.auth.principal-cache.expiration:30000}") long expiration
+    ) {
+        this.userRepository = userRepository;
+        this.invalidationBus = invalidationBus;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofMillis(expiration))
+                .build();
+
+        invalidationBus.register(NAME, key -> {
+            if (key == null) {
+                cache.invalidateAll();
+            } else {
+                cache.invalidate(UUID.fromString(key));
+            }
+        });
+    }
+
+    public Optional<User> get(UUID id) {
+        return Optional.ofNullable(cache.get(id, key -> userRepository.findById(key).orElse(null)));
+    }
+
+    public void evictAfterCommit(UUID id) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            evict(id);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                evict(id);
+            }
+        });
+    }
+
+    private void evict(UUID id) {
+        cache.invalidate(id);
+        invalidationBus.publishEvict(NAME, id.toString());
+    }
+}
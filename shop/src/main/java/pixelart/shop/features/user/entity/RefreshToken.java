@@ -19,8 +19,9 @@ public class RefreshToken {
     @Id @GeneratedValue(strategy = GenerationType.UUID)
     private UUID id;
 
-    @Column(unique = true, nullable = false, length = 1000)
-    private String token;
+    // SHA-256 of the token, the raw JWT is never stored (unique index in V5__refresh_token_hash.sql)
+    @Column(name = "token_hash", nullable = false, columnDefinition = "bytea")
+    private byte[] tokenHash;
 
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
@@ -32,6 +33,9 @@ public class RefreshToken {
     @Builder.Default
     private boolean isRevoked = false;
 
+    // Revoked tokens are kept for a retention window from this point, see RefreshTokenPurgeScheduler
+    private LocalDateTime revokedAt;
+
     @CreationTimestamp
     private LocalDateTime createdAt;
 }
@@ -59,6 +59,11 @@ public class User implements UserDetails, Serializable {
     @Builder.Default
     private boolean isActive = true;
 
+    // Access tokens carrying an older "ver" claim are rejected once the version is revoked
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    @Builder.Default
+    private long tokenVersion = 0;
+
     @CreationTimestamp
     private LocalDateTime createdAt;
 
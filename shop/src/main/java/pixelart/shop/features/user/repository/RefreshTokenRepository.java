@@ -4,6 +4,7 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import pixelart.shop.features.user.entity.RefreshToken;
 
 import java.time.LocalDateTime;
@@ -12,13 +13,23 @@ import java.util.UUID;
 
 @Repository
 public interface RefreshTokenRepository extends JpaRepository<RefreshToken, UUID> {
-    Optional<RefreshToken> findByToken(String token);
+    Optional<RefreshToken> findByTokenHash(byte[] tokenHash);
 
     @Modifying
-    @Query("UPDATE RefreshToken rt SET rt.isRevoked = true WHERE rt.user.id = :userId")
-    void revokeAllByUserId(UUID userId);
+    @Query("UPDATE RefreshToken rt SET rt.isRevoked = true, rt.revokedAt = :revokedAt " +
+            "WHERE rt.user.id = :userId AND rt.isRevoked = false")
+    void revokeAllByUserId(UUID userId, LocalDateTime revokedAt);
 
+    // One bounded chunk per call and per transaction, so the purge never holds row locks for long
+    @Transactional
     @Modifying
-    @Query("DELETE FROM RefreshToken rt WHERE rt.expiresAt < :now OR rt.isRevoked = true")
-    void deleteExpiredAndRevoked(LocalDateTime now);
+    @Query(value = """
+            DELETE FROM refresh_tokens
+            WHERE ctid IN (
+                SELECT ctid FROM refresh_tokens
+                WHERE expires_at < :now OR (is_revoked = true AND revoked_at < :revokedBefore)
+                LIMIT :limit
+            )
+            """, nativeQuery = true)
+    int deleteExpiredAndRevoked(LocalDateTime now, LocalDateTime revokedBefore, int limit);
 }
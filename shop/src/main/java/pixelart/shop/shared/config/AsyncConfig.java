@@ -1,9 +1,70 @@
 package pixelart.shop.shared.config;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 @Configuration
 @EnableAsync
 public class AsyncConfig {
-}
\ No newline at end of file
+
+    // Kept small and bounded: a refresh that can't be queued is skipped and the entry is served until it expires
+    @Bean
+    public ThreadPoolTaskExecutor cacheRefreshExecutor(
+            @Value("${shop.cache.refresh-ahead.pool-size:2}") int poolSize,
+            @Value("${shop.cache.refresh-ahead.queue-capacity:100}") int queueCapacity
+    ) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("cache-refresh-");
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        return executor;
+    }
+
+    // Blocking storage deletes for bulk cleanups; callers bound in-flight work so nothing is rejected
+    @Bean
+    public ThreadPoolTaskExecutor storageDeleteExecutor(
+            @Value("${shop.storage.delete.parallelism:8}") int parallelism
+    ) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(parallelism);
+        executor.setMaxPoolSize(parallelism);
+        executor.setQueueCapacity(parallelism);
+        executor.setThreadNamePrefix("storage-delete-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        return executor;
+    }
+
+    // Finishes asynchronously created sprites; sized for storage throughput, independent of HTTP concurrency
+    @Bean
+    public ThreadPoolTaskExecutor spriteUploadExecutor(
+            @Value("${shop.sprite.upload.pool-size:4}") int poolSize,
+            @Value("${shop.sprite.upload.queue-capacity:500}") int queueCapacity
+    ) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("sprite-upload-");
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        return executor;
+    }
+
+    // Image uploads of batch imports; each import bounds its own in-flight uploads and runs overflow itself
+    @Bean
+    public ThreadPoolTaskExecutor spriteImportExecutor(
+            @Value("${shop.sprite.batch.upload-parallelism:8}") int parallelism
+    ) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(parallelism);
+        executor.setMaxPoolSize(parallelism);
+        executor.setQueueCapacity(parallelism);
+        executor.setThreadNamePrefix("sprite-import-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        return executor;
+    }
+}
@@ -0,0 +1,23 @@
+package pixelart.shop.shared.config;
+
+import org.flywaydb.core.Flyway;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.flyway.autoconfigure.FlywayMigrationStrategy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class FlywayConfig {
+
+    // Tables are still created by Hibernate (ddl-auto=update); migrations only add what it can't express
+    // (extensions, GIN indexes, backfills), so they run once the EntityManagerFactory is up
+    @Bean
+    public FlywayMigrationStrategy flywayMigrationStrategy() {
+        return flyway -> { };
+    }
+
+    @Bean
+    public SmartInitializingSingleton flywayMigrator(Flyway flyway) {
+        return flyway::migrate;
+    }
+}
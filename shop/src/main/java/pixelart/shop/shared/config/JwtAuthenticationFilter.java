@@ -1,5 +1,6 @@
 package pixelart.shop.shared.config;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.Cookie;
@@ -12,12 +13,11 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
-import pixelart.shop.features.user.entity.User;
-import pixelart.shop.features.user.repository.UserRepository;
+import pixelart.shop.features.auth.principal.AuthenticatedUser;
+import pixelart.shop.features.auth.principal.TokenVersions;
 import pixelart.shop.shared.util.JwtUtil;
 
 import java.io.IOException;
-import java.util.UUID;
 
 @Slf4j
 @Component
@@ -25,7 +25,7 @@ import java.util.UUID;
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtUtil jwtUtil;
-    private final UserRepository userRepository;
+    private final TokenVersions tokenVersions;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
@@ -48,16 +48,17 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                 }
             }
 
-            if (jwtUtil.isTokenValid(token)
+            Claims claims = token != null ? jwtUtil.verify(token).orElse(null) : null;
+
+            if (claims != null
                     && SecurityContextHolder.getContext().getAuthentication() == null) {
 
-                String userId = jwtUtil.extractUserId(token);
-                User user = userRepository.findById(UUID.fromString(userId)).orElse(null);
+                AuthenticatedUser principal = AuthenticatedUser.from(claims).orElse(null);
 
-                if (user != null && user.isEnabled()) {
+                if (principal != null && tokenVersions.isCurrent(principal)) {
                     UsernamePasswordAuthenticationToken authToken =
                             new UsernamePasswordAuthenticationToken(
-                                    user, null, user.getAuthorities());
+                                    principal, null, principal.getAuthorities());
                     authToken.setDetails(
                             new WebAuthenticationDetailsSource().buildDetails(request));
                     SecurityContextHolder.getContext().setAuthentication(authToken);
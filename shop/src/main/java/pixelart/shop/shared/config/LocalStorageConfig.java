@@ -0,0 +1,25 @@
+package pixelart.shop.shared.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.web.servlet.handler.SimpleUrlHandlerMapping;
+import pixelart.shop.shared.infrastructure.storage.LocalFileHandler;
+import pixelart.shop.shared.infrastructure.storage.LocalFileStorage;
+
+import java.util.Map;
+
+@Configuration
+@ConditionalOnProperty(name = "shop.storage.type", havingValue = "local")
+public class LocalStorageConfig {
+
+    @Bean
+    public SimpleUrlHandlerMapping localFilesHandlerMapping(LocalFileStorage localFileStorage) {
+        SimpleUrlHandlerMapping mapping = new SimpleUrlHandlerMapping(
+                Map.of(localFileStorage.getBaseUrl() + "/**", new LocalFileHandler(localFileStorage))
+        );
+        mapping.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return mapping;
+    }
+}
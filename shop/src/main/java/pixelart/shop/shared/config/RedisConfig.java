@@ -6,31 +6,81 @@ import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.databind.json.JsonMapper;
 import com.fasterxml.jackson.databind.jsontype.impl.LaissezFaireSubTypeValidator;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
 import org.springframework.data.redis.serializer.RedisSerializer;
+import pixelart.shop.shared.infrastructure.cache.CacheInvalidationBus;
+import pixelart.shop.shared.infrastructure.cache.TwoLevelCacheManager;
+import pixelart.shop.shared.infrastructure.lock.RedisLock;
+import pixelart.shop.shared.infrastructure.pagination.PageCounter;
 
 import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
 
 @Configuration
-@EnableCaching
+// Cache advice runs outside the transaction, so hits and coalesced waiters never hold a connection
+@EnableCaching(order = Ordered.LOWEST_PRECEDENCE - 1)
 public class RedisConfig {
 
+    @Value("${shop.cache.local.maximum-size:10000}")
+    private long localMaximumSize;
+
+    @Value("${shop.cache.local.expiration:60000}")
+    private long localExpiration;
+
+    @Value("${shop.cache.single-flight.distributed:false}")
+    private boolean distributedSingleFlight;
+
+    @Value("${shop.cache.single-flight.lock-timeout:5000}")
+    private long singleFlightLockTimeout;
+
+    @Value("${shop.pagination.count-estimate-ttl:600000}")
+    private long countEstimateTtl;
+
+    @Value("${shop.cache.refresh-ahead.ratio:0.2}")
+    private double refreshAheadRatio;
+
+    @Value("${shop.cache.refresh-ahead.caches:sprites,asset-packs}")
+    private Set<String> refreshAheadCaches;
+
     @Bean
     public StringRedisTemplate redisTemplate(RedisConnectionFactory factory) {
         return new StringRedisTemplate(factory);
     }
 
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(
+            RedisConnectionFactory factory,
+            CacheInvalidationBus invalidationBus
+    ) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(factory);
+        container.addMessageListener(invalidationBus, new ChannelTopic(CacheInvalidationBus.CHANNEL));
+        return container;
+    }
+
     @SuppressWarnings("deprecation")
     @Bean
-    public CacheManager cacheManager(RedisConnectionFactory factory) {
+    public CacheManager cacheManager(
+            RedisConnectionFactory factory,
+            CacheInvalidationBus invalidationBus,
+            RedisLock redisLock,
+            @Qualifier("cacheRefreshExecutor") Executor cacheRefreshExecutor
+    ) {
         ObjectMapper objectMapper = JsonMapper.builder()
                 .addModule(new JavaTimeModule())
                 .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
@@ -53,16 +103,32 @@ public class RedisConfig {
                         RedisSerializationContext.SerializationPair.fromSerializer(serializer)
                 );
 
-        return RedisCacheManager.builder(factory)
-                .cacheDefaults(defaultConfig)
-                .withCacheConfiguration("sprites",
-                        defaultConfig.entryTtl(Duration.ofMinutes(5)))
-                .withCacheConfiguration("sprites:detail",
-                        defaultConfig.entryTtl(Duration.ofMinutes(10)))
-                .withCacheConfiguration("asset-packs",
-                        defaultConfig.entryTtl(Duration.ofMinutes(5)))
-                .withCacheConfiguration("asset-packs:detail",
-                        defaultConfig.entryTtl(Duration.ofMinutes(10)))
-                .build();
+        Map<String, Duration> ttls = Map.of(
+                "sprites", Duration.ofMinutes(5),
+                "sprites:detail", Duration.ofMinutes(10),
+                "asset-packs", Duration.ofMinutes(5),
+                "asset-packs:detail", Duration.ofMinutes(10),
+                PageCounter.CACHE, Duration.ofMillis(countEstimateTtl)
+        );
+
+        RedisCacheManager.RedisCacheManagerBuilder builder = RedisCacheManager.builder(factory)
+                .cacheDefaults(defaultConfig);
+        ttls.forEach((name, ttl) -> builder.withCacheConfiguration(name, defaultConfig.entryTtl(ttl)));
+
+        RedisCacheManager redisCacheManager = builder.build();
+        redisCacheManager.afterPropertiesSet();
+
+        return new TwoLevelCacheManager(
+                redisCacheManager,
+                invalidationBus,
+                ttls,
+                localMaximumSize,
+                Duration.ofMillis(localExpiration),
+                distributedSingleFlight ? redisLock : null,
+                Duration.ofMillis(singleFlightLockTimeout),
+                refreshAheadCaches,
+                refreshAheadRatio,
+                cacheRefreshExecutor
+        );
     }
-}
\ No newline at end of file
+}
@@ -2,6 +2,7 @@ package pixelart.shop.shared.config;
 
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Lazy;
@@ -32,6 +33,9 @@ public class SecurityConfig {
     private final OAuth2AuthenticationFailureHandler failureHandler;
     private final CorsConfigurationSource corsConfigurationSource;
 
+    @Value("${shop.storage.local.base-url:/files}")
+    private String localFilesUrl;
+
     @Bean
     @Lazy
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
@@ -47,6 +51,8 @@ public class SecurityConfig {
                         .requestMatchers(HttpMethod.GET, "/api/v1/sprites/**").permitAll()
                         .requestMatchers(HttpMethod.GET, "/api/v1/asset-packs/**").permitAll()
                         .requestMatchers(HttpMethod.GET, "/api/v1/categories/**").permitAll()
+                        .requestMatchers(HttpMethod.GET, localFilesUrl + "/**").permitAll()
+                        .requestMatchers(HttpMethod.HEAD, localFilesUrl + "/**").permitAll()
                         .anyRequest().authenticated()
                 )
                 .oauth2Login(oauth2 -> oauth2
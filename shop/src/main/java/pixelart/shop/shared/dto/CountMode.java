@@ -0,0 +1,25 @@
+package pixelart.shop.shared.dto;
+
+import pixelart.shop.shared.exception.AppException;
+
+import java.util.Locale;
+
+public enum CountMode {
+
+    EXACT,
+    // Total from a periodically refreshed cached count
+    ESTIMATE,
+    // No total at all, only whether a next page exists
+    NONE;
+
+    public static CountMode from(String value) {
+        if (value == null || value.isBlank()) {
+            return EXACT;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw AppException.badRequest("count must be one of exact, estimate, none");
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package pixelart.shop.shared.dto;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class CursorPage<T> {
+
+    private final List<T> content;
+    private final int size;
+    private final String nextCursor;
+    private final boolean hasNext;
+
+    @JsonCreator(mode = JsonCreator.Mode.PROPERTIES)
+    public CursorPage(
+            @JsonProperty("content") List<T> content,
+            @JsonProperty("size") int size,
+            @JsonProperty("nextCursor") String nextCursor,
+            @JsonProperty("hasNext") boolean hasNext
+    ) {
+        this.content = content;
+        this.size = size;
+        this.nextCursor = nextCursor;
+        this.hasNext = hasNext;
+    }
+}
@@ -0,0 +1,29 @@
+package pixelart.shop.shared.dto;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+
+import java.util.List;
+
+@JsonIgnoreProperties(ignoreUnknown = true, value = {"pageable", "sort"})
+public class RestSlice<T> extends SliceImpl<T> {
+
+    @JsonCreator(mode = JsonCreator.Mode.PROPERTIES)
+    public RestSlice(
+            @JsonProperty("content") List<T> content,
+            @JsonProperty("number") int number,
+            @JsonProperty("size") int size,
+            @JsonProperty("hasNext") boolean hasNext
+    ) {
+        super(content, PageRequest.of(number > 0 ? number : 0, size > 0 ? size : 10), hasNext);
+    }
+
+    @Override
+    @JsonProperty("hasNext")
+    public boolean hasNext() {
+        return super.hasNext();
+    }
+}
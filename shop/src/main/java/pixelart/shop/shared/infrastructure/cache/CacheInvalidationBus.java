@@ -0,0 +1,67 @@
+package pixelart.shop.shared.infrastructure.cache;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CacheInvalidationBus implements MessageListener {
+
+    public static final String CHANNEL = "cache:invalidation";
+
+    private static final String CLEAR = "*";
+    private static final String KEY_PREFIX = "k:";
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final Map<String, Consumer<String>> listeners = new ConcurrentHashMap<>();
+
+    private final StringRedisTemplate redisTemplate;
+
+    // The listener receives the evicted key, or null when the whole cache was cleared
+    public void register(String name, Consumer<String> listener) {
+        listeners.put(name, listener);
+    }
+
+    public void publishEvict(String name, String key) {
+        publish(name, KEY_PREFIX + key);
+    }
+
+    public void publishClear(String name) {
+        publish(name, CLEAR);
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split("\n", 3);
+        if (parts.length < 3 || nodeId.equals(parts[0])) {
+            return;
+        }
+
+        Consumer<String> listener = listeners.get(parts[1]);
+        if (listener == null) {
+            return;
+        }
+
+        String target = parts[2];
+        listener.accept(target.startsWith(KEY_PREFIX) ? target.substring(KEY_PREFIX.length()) : null);
+    }
+
+    private void publish(String name, String target) {
+        try {
+            redisTemplate.convertAndSend(CHANNEL, nodeId + "\n" + name + "\n" + target);
+        } catch (Exception e) {
+            log.warn("Unable to broadcast invalidation for cache {}: {}", name, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package pixelart.shop.shared.infrastructure.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+@Component
+@RequiredArgsConstructor
+public class CacheVersions {
+
+    private static final String NAME = "cache-versions";
+    private static final String KEY_PREFIX = "cache-version:";
+
+    private final StringRedisTemplate redisTemplate;
+    private final CacheInvalidationBus invalidationBus;
+
+    private final Cache<String, Long> local = Caffeine.newBuilder()
+            .maximumSize(10_000)
+            .expireAfterWrite(Duration.ofSeconds(30))
+            .build();
+
+    @PostConstruct
+    void subscribe() {
+        invalidationBus.register(NAME, tag -> {
+            if (tag == null) {
+                local.invalidateAll();
+            } else {
+                local.invalidate(tag);
+            }
+        });
+    }
+
+    public Map<String, Long> current(Set<String> tags) {
+        return local.getAll(tags, this::load);
+    }
+
+    public void bump(String tag) {
+        Long version = redisTemplate.opsForValue().increment(KEY_PREFIX + tag);
+        if (version != null) {
+            local.put(tag, version);
+        }
+        invalidationBus.publishEvict(NAME, tag);
+    }
+
+    private Map<String, Long> load(Set<? extends String> tags) {
+        List<String> ordered = new ArrayList<>(tags);
+        List<String> values = redisTemplate.opsForValue()
+                .multiGet(ordered.stream().map(tag -> KEY_PREFIX + tag).toList());
+
+        Map<String, Long> versions = new HashMap<>();
+        for (int i = 0; i < ordered.size(); i++) {
+            String value = values != null ? values.get(i) : null;
+            versions.put(ordered.get(i), value != null ? Long.parseLong(value) : 0L);
+        }
+        return versions;
+    }
+}
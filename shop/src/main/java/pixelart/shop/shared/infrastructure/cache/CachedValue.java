@@ -0,0 +1,21 @@
+package pixelart.shop.shared.infrastructure.cache;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Getter;
+
+@Getter
+public class CachedValue {
+
+    private final Object value;
+    private final long writtenAt;
+
+    @JsonCreator(mode = JsonCreator.Mode.PROPERTIES)
+    public CachedValue(
+            @JsonProperty("value") Object value,
+            @JsonProperty("writtenAt") long writtenAt
+    ) {
+        this.value = value;
+        this.writtenAt = writtenAt;
+    }
+}
@@ -0,0 +1,298 @@
+package pixelart.shop.shared.infrastructure.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+import pixelart.shop.shared.infrastructure.lock.RedisLock;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+@Slf4j
+public class TwoLevelCache implements Cache {
+
+    private static final long LOCK_POLL_INTERVAL_MS = 25;
+
+    private final String name;
+    private final com.github.benmanes.caffeine.cache.Cache<String, CachedValue> local;
+    private final Cache remote;
+    private final CacheInvalidationBus invalidationBus;
+    private final SingleFlight singleFlight = new SingleFlight();
+
+    // Null when loads are only coalesced per node
+    private final RedisLock loadLock;
+    private final Duration loadLockTimeout;
+
+    // Entries read after (1 - refreshAheadRatio) of their TTL are reloaded in the background
+    private final long refreshAfterMillis;
+    private final Executor refreshExecutor;
+    private final Set<String> refreshing = ConcurrentHashMap.newKeySet();
+
+    public TwoLevelCache(
+            String name,
+            com.github.benmanes.caffeine.cache.Cache<String, CachedValue> local,
+            Cache remote,
+            CacheInvalidationBus invalidationBus,
+            RedisLock loadLock,
+            Duration loadLockTimeout,
+            Duration ttl,
+            double refreshAheadRatio,
+            Executor refreshExecutor
+    ) {
+        this.name = name;
+        this.local = local;
+        this.remote = remote;
+        this.invalidationBus = invalidationBus;
+        this.loadLock = loadLock;
+        this.loadLockTimeout = loadLockTimeout;
+        this.refreshAfterMillis = refreshAheadRatio > 0 && refreshExecutor != null
+                ? (long) (ttl.toMillis() * (1 - refreshAheadRatio))
+                : -1;
+        this.refreshExecutor = refreshExecutor;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return remote.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        String localKey = localKey(key);
+
+        CachedValue entry = local.getIfPresent(localKey);
+        if (entry == null) {
+            entry = getRemote(key, localKey);
+        }
+        return entry != null ? new SimpleValueWrapper(entry.getValue()) : null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        Object value = wrapper != null ? wrapper.get() : null;
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException(
+                    "Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        String localKey = localKey(key);
+
+        CachedValue entry = local.getIfPresent(localKey);
+        if (entry == null) {
+            try {
+                entry = singleFlight.execute(localKey, () -> load(key, localKey, valueLoader));
+            } catch (Exception e) {
+                throw new ValueRetrievalException(key, valueLoader, e);
+            }
+        }
+
+        if (entry != null && isDueForRefresh(entry)) {
+            refreshAsync(key, localKey, entry, valueLoader);
+        }
+        return entry != null ? (T) entry.getValue() : null;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        if (value == null) {
+            remote.put(key, null);
+            return;
+        }
+        store(key, localKey(key), value);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        String localKey = localKey(key);
+        CachedValue entry = new CachedValue(value, System.currentTimeMillis());
+
+        ValueWrapper existing = remote.putIfAbsent(key, entry);
+        CachedValue current = existing != null ? unwrap(existing.get()) : entry;
+        if (current != null && current.getValue() != null) {
+            local.put(localKey, current);
+        }
+        return existing != null ? new SimpleValueWrapper(current != null ? current.getValue() : null) : null;
+    }
+
+    // Remote goes first: a local miss in between would otherwise re-fill L1 from the stale remote value,
+    // and this node ignores its own broadcast, so nothing would clear it before it expires
+    @Override
+    public void evict(Object key) {
+        String localKey = localKey(key);
+        remote.evict(key);
+        local.invalidate(localKey);
+        invalidationBus.publishEvict(name, localKey);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        String localKey = localKey(key);
+        boolean evicted = remote.evictIfPresent(key);
+        local.invalidate(localKey);
+        invalidationBus.publishEvict(name, localKey);
+        return evicted;
+    }
+
+    @Override
+    public void clear() {
+        remote.clear();
+        local.invalidateAll();
+        invalidationBus.publishClear(name);
+    }
+
+    @Override
+    public boolean invalidate() {
+        boolean invalidated = remote.invalidate();
+        local.invalidateAll();
+        invalidationBus.publishClear(name);
+        return invalidated;
+    }
+
+    void evictLocal(String localKey) {
+        if (localKey == null) {
+            local.invalidateAll();
+        } else {
+            local.invalidate(localKey);
+        }
+    }
+
+    private CachedValue load(Object key, String localKey, Callable<?> valueLoader) throws Exception {
+        CachedValue cached = getRemote(key, localKey);
+        if (cached != null) {
+            return cached;
+        }
+        if (loadLock == null) {
+            return loadAndStore(key, localKey, valueLoader);
+        }
+
+        String lockName = lockName(localKey);
+        Optional<String> token = loadLock.tryAcquire(lockName, loadLockTimeout);
+        if (token.isPresent()) {
+            try {
+                return loadAndStore(key, localKey, valueLoader);
+            } finally {
+                loadLock.release(lockName, token.get());
+            }
+        }
+
+        // Another node is loading this key: wait for its result instead of querying as well
+        long deadline = System.nanoTime() + loadLockTimeout.toNanos();
+        while (System.nanoTime() < deadline) {
+            Thread.sleep(LOCK_POLL_INTERVAL_MS);
+
+            cached = getRemote(key, localKey);
+            if (cached != null) {
+                return cached;
+            }
+            if (!loadLock.isLocked(lockName)) {
+                break;
+            }
+        }
+
+        return loadAndStore(key, localKey, valueLoader);
+    }
+
+    private boolean isDueForRefresh(CachedValue entry) {
+        return refreshAfterMillis >= 0
+                && entry.getWrittenAt() > 0
+                && System.currentTimeMillis() - entry.getWrittenAt() >= refreshAfterMillis;
+    }
+
+    private void refreshAsync(Object key, String localKey, CachedValue stale, Callable<?> valueLoader) {
+        if (!refreshing.add(localKey)) {
+            return;
+        }
+
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    refresh(key, localKey, stale, valueLoader);
+                } catch (Exception e) {
+                    log.warn("Refresh-ahead failed for {} in cache {}: {}", localKey, name, e.getMessage());
+                } finally {
+                    refreshing.remove(localKey);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Refresh queue is full: keep serving the current entry until it expires
+            refreshing.remove(localKey);
+        }
+    }
+
+    private void refresh(Object key, String localKey, CachedValue stale, Callable<?> valueLoader) throws Exception {
+        CachedValue current = getRemote(key, localKey);
+        if (current != null && current.getWrittenAt() > stale.getWrittenAt()) {
+            return;
+        }
+        if (loadLock == null) {
+            loadAndStore(key, localKey, valueLoader);
+            return;
+        }
+
+        String lockName = lockName(localKey);
+        Optional<String> token = loadLock.tryAcquire(lockName, loadLockTimeout);
+        if (token.isEmpty()) {
+            return;
+        }
+        try {
+            loadAndStore(key, localKey, valueLoader);
+        } finally {
+            loadLock.release(lockName, token.get());
+        }
+    }
+
+    private CachedValue getRemote(Object key, String localKey) {
+        ValueWrapper wrapper = remote.get(key);
+        CachedValue entry = wrapper != null ? unwrap(wrapper.get()) : null;
+        if (entry == null || entry.getValue() == null) {
+            return null;
+        }
+        local.put(localKey, entry);
+        return entry;
+    }
+
+    private CachedValue loadAndStore(Object key, String localKey, Callable<?> valueLoader) throws Exception {
+        Object value = valueLoader.call();
+        return value != null ? store(key, localKey, value) : null;
+    }
+
+    private CachedValue store(Object key, String localKey, Object value) {
+        CachedValue entry = new CachedValue(value, System.currentTimeMillis());
+        remote.put(key, entry);
+        local.put(localKey, entry);
+        return entry;
+    }
+
+    // Entries written before values carried their write time have no age and are never refreshed early
+    private CachedValue unwrap(Object stored) {
+        if (stored == null) {
+            return null;
+        }
+        return stored instanceof CachedValue entry ? entry : new CachedValue(stored, 0);
+    }
+
+    private String lockName(String localKey) {
+        return "cache-load:" + name + ":" + localKey;
+    }
+
+    private String localKey(Object key) {
+        return String.valueOf(key);
+    }
+}
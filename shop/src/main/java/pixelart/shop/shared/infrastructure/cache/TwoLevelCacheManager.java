@@ -0,0 +1,89 @@
+package pixelart.shop.shared.infrastructure.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import pixelart.shop.shared.infrastructure.lock.RedisLock;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+
+public class TwoLevelCacheManager implements CacheManager {
+
+    private final CacheManager remoteCacheManager;
+    private final CacheInvalidationBus invalidationBus;
+    private final Map<String, Duration> nearCacheTtls;
+    private final long localMaximumSize;
+    private final Duration localTtl;
+    private final RedisLock loadLock;
+    private final Duration loadLockTimeout;
+    private final Set<String> refreshAheadCaches;
+    private final double refreshAheadRatio;
+    private final Executor refreshExecutor;
+
+    private final ConcurrentMap<String, Cache> caches = new ConcurrentHashMap<>();
+
+    public TwoLevelCacheManager(
+            CacheManager remoteCacheManager,
+            CacheInvalidationBus invalidationBus,
+            Map<String, Duration> nearCacheTtls,
+            long localMaximumSize,
+            Duration localTtl,
+            RedisLock loadLock,
+            Duration loadLockTimeout,
+            Set<String> refreshAheadCaches,
+            double refreshAheadRatio,
+            Executor refreshExecutor
+    ) {
+        this.remoteCacheManager = remoteCacheManager;
+        this.invalidationBus = invalidationBus;
+        this.nearCacheTtls = nearCacheTtls;
+        this.localMaximumSize = localMaximumSize;
+        this.localTtl = localTtl;
+        this.loadLock = loadLock;
+        this.loadLockTimeout = loadLockTimeout;
+        this.refreshAheadCaches = refreshAheadCaches;
+        this.refreshAheadRatio = refreshAheadRatio;
+        this.refreshExecutor = refreshExecutor;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        return caches.computeIfAbsent(name, this::createCache);
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return remoteCacheManager.getCacheNames();
+    }
+
+    private Cache createCache(String name) {
+        Cache remote = remoteCacheManager.getCache(name);
+        if (remote == null || !nearCacheTtls.containsKey(name)) {
+            return remote;
+        }
+
+        // Caffeine's size eviction is W-TinyLFU, so one-off pages don't push out the hot ones
+        TwoLevelCache cache = new TwoLevelCache(
+                name,
+                Caffeine.newBuilder()
+                        .maximumSize(localMaximumSize)
+                        .expireAfterWrite(localTtl)
+                        .build(),
+                remote,
+                invalidationBus,
+                loadLock,
+                loadLockTimeout,
+                nearCacheTtls.get(name),
+                refreshAheadCaches.contains(name) ? refreshAheadRatio : 0,
+                refreshExecutor
+        );
+        invalidationBus.register(name, cache::evictLocal);
+        return cache;
+    }
+}
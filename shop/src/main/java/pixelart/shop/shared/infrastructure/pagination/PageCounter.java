@@ -0,0 +1,62 @@
+package pixelart.shop.shared.infrastructure.pagination;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Component;
+import pixelart.shop.shared.dto.CountMode;
+import pixelart.shop.shared.dto.RestPage;
+import pixelart.shop.shared.dto.RestSlice;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.function.LongSupplier;
+
+// Turns a size+1 slice query into the response shape asked for by ?count=
+@Component
+@RequiredArgsConstructor
+public class PageCounter {
+
+    public static final String CACHE = "page-counts";
+
+    private final CacheManager cacheManager;
+
+    public <T> Slice<T> complete(
+            Slice<T> slice,
+            Pageable pageable,
+            CountMode mode,
+            String countKey,
+            LongSupplier count
+    ) {
+        List<T> content = slice.getContent();
+        int number = pageable.getPageNumber();
+        int size = pageable.getPageSize();
+
+        if (mode == CountMode.NONE) {
+            return new RestSlice<>(content, number, size, slice.hasNext());
+        }
+
+        // The last page already tells us the total
+        long seen = pageable.getOffset() + content.size();
+        if (!slice.hasNext() && (!content.isEmpty() || pageable.getOffset() == 0)) {
+            return new RestPage<>(content, number, size, seen);
+        }
+
+        long total = mode == CountMode.ESTIMATE
+                ? Math.max(estimate(countKey, count), slice.hasNext() ? seen + 1 : seen)
+                : count.getAsLong();
+        return new RestPage<>(content, number, size, total);
+    }
+
+    private long estimate(String countKey, LongSupplier count) {
+        Cache cache = cacheManager.getCache(CACHE);
+        if (cache == null) {
+            return count.getAsLong();
+        }
+        // Small counts come back from Redis as Integer
+        Number cached = cache.get(countKey, (Callable<Number>) count::getAsLong);
+        return cached != null ? cached.longValue() : count.getAsLong();
+    }
+}
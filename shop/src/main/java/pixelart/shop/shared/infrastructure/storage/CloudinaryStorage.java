@@ -3,37 +3,110 @@ package pixelart.shop.shared.infrastructure.storage;
 import com.cloudinary.Cloudinary;
 import com.cloudinary.utils.ObjectUtils;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 
+@Slf4j
 @Service
+@Qualifier(FileStorage.BACKEND)
 @RequiredArgsConstructor
+@ConditionalOnProperty(name = "shop.storage.type", havingValue = "cloudinary", matchIfMissing = true)
 public class CloudinaryStorage implements FileStorage {
 
+    // Admin API limit for delete_resources
+    private static final int DELETE_BATCH_SIZE = 100;
+
     private final Cloudinary cloudinary;
 
     @Override
     public UploadResult upload(byte[] bytes, String folder) throws IOException {
+        return toResult(cloudinary.uploader().upload(bytes, uploadOptions(folder)));
+    }
 
-        Map<?, ?> result = cloudinary.uploader().upload(
-                bytes,
-                ObjectUtils.asMap(
-                        "folder", folder,
-                        "resource_type", "image",
-                        "transformation", "q_auto,f_auto"
-                )
-        );
+    @Override
+    public UploadResult upload(InputStream content, long size, String contentType, String folder) throws IOException {
+        return uploadStream(content, uploadOptions(folder));
+    }
 
-        return new UploadResult(
-                (String) result.get("secure_url"),
-                (String) result.get("public_id")
-        );
+    @Override
+    public UploadResult uploadAs(String publicId, InputStream content, long size, String contentType) throws IOException {
+        return uploadStream(content, ObjectUtils.asMap(
+                "public_id", publicId,
+                "resource_type", "image",
+                "transformation", "q_auto,f_auto"
+        ));
+    }
+
+    // The HTTP client streams File bodies from disk but buffers anything else, so spool the stream to a temp file
+    private UploadResult uploadStream(InputStream content, Map<?, ?> options) throws IOException {
+        Path spool = Files.createTempFile("upload-", null);
+        try {
+            Files.copy(content, spool, StandardCopyOption.REPLACE_EXISTING);
+            return toResult(cloudinary.uploader().upload(spool.toFile(), options));
+        } finally {
+            Files.deleteIfExists(spool);
+        }
     }
 
     @Override
     public void delete(String publicId) throws IOException {
         cloudinary.uploader().destroy(publicId, ObjectUtils.emptyMap());
     }
+
+    @Override
+    public DeleteResult deleteAll(Collection<String> publicIds) {
+        List<String> ids = new ArrayList<>(publicIds);
+        List<String> deleted = new ArrayList<>();
+        List<String> failed = new ArrayList<>();
+
+        for (int from = 0; from < ids.size(); from += DELETE_BATCH_SIZE) {
+            List<String> batch = ids.subList(from, Math.min(from + DELETE_BATCH_SIZE, ids.size()));
+            try {
+                Map<?, ?> statuses = (Map<?, ?>) cloudinary.api()
+                        .deleteResources(batch, ObjectUtils.asMap("resource_type", "image"))
+                        .get("deleted");
+
+                for (String publicId : batch) {
+                    Object status = statuses != null ? statuses.get(publicId) : null;
+                    if ("deleted".equals(status) || "not_found".equals(status)) {
+                        deleted.add(publicId);
+                    } else {
+                        failed.add(publicId);
+                    }
+                }
+            } catch (Exception e) {
+                log.warn("Bulk delete of {} images failed: {}", batch.size(), e.getMessage());
+                failed.addAll(batch);
+            }
+        }
+
+        return new DeleteResult(deleted, failed);
+    }
+
+    private Map<?, ?> uploadOptions(String folder) {
+        return ObjectUtils.asMap(
+                "folder", folder,
+                "resource_type", "image",
+                "transformation", "q_auto,f_auto"
+        );
+    }
+
+    private UploadResult toResult(Map<?, ?> result) {
+        return new UploadResult(
+                (String) result.get("secure_url"),
+                (String) result.get("public_id")
+        );
+    }
 }
@@ -0,0 +1,9 @@
+package pixelart.shop.shared.infrastructure.storage;
+
+import java.util.List;
+
+// Ids that were removed (or already gone) and ids that should be retried
+public record DeleteResult(
+        List<String> deleted,
+        List<String> failed
+) {}
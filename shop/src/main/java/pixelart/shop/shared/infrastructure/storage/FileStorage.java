@@ -1,8 +1,16 @@
 package pixelart.shop.shared.infrastructure.storage;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collection;
 
 public interface FileStorage {
+    // Qualifier of the concrete store, for decorators that wrap it
+    String BACKEND = "storageBackend";
+
     UploadResult upload(byte[] bytes, String folder) throws IOException;
+    UploadResult upload(InputStream content, long size, String contentType, String folder) throws IOException;
+    UploadResult uploadAs(String publicId, InputStream content, long size, String contentType) throws IOException;
     void delete(String publicId) throws IOException;
+    DeleteResult deleteAll(Collection<String> publicIds);
 }
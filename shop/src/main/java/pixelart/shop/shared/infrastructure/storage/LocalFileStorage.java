@@ -0,0 +1,267 @@
+package pixelart.shop.shared.infrastructure.storage;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import pixelart.shop.shared.util.HashUtil;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URLConnection;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Content-addressed filesystem store for local runs, tests and benchmarks. Bytes live once under
+// blobs/<ab>/<cd>/<sha256>.<ext>; every public id is a hard link to its blob under refs/, so identical
+// uploads share one file and a blob is removed together with its last reference.
+// Blob URLs never change content, so LocalFileHandler serves them with the hash as a strong ETag.
+@Service
+@Qualifier(FileStorage.BACKEND)
+@ConditionalOnProperty(name = "shop.storage.type", havingValue = "local")
+public class LocalFileStorage implements FileStorage {
+
+    private static final String BLOBS = "blobs";
+    private static final Pattern BLOB_NAME = Pattern.compile("([0-9a-f]{64})(\\.[a-z0-9]+)?");
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Path root;
+    private final Path blobs;
+    private final Path refs;
+    private final Path tmp;
+    private final String baseUrl;
+
+    // Guards linking and unlinking, so a blob is never removed while a new reference to it is created
+    private final Object blobLock = new Object();
+
+    public LocalFileStorage(
+            @Value("${shop.storage.local.root:./storage}") String root,
+            @Value("${shop.storage.local.base-url:/files}") String baseUrl
+    ) throws IOException {
+        this.root = Path.of(root).toAbsolutePath().normalize();
+        this.blobs = Files.createDirectories(this.root.resolve(BLOBS));
+        this.refs = Files.createDirectories(this.root.resolve("refs"));
+        this.tmp = Files.createDirectories(this.root.resolve("tmp"));
+        this.baseUrl = baseUrl;
+    }
+
+    @Override
+    public UploadResult upload(byte[] bytes, String folder) throws IOException {
+        try (InputStream content = new ByteArrayInputStream(bytes)) {
+            return upload(content, bytes.length, null, folder);
+        }
+    }
+
+    @Override
+    public UploadResult upload(InputStream content, long size, String contentType, String folder) throws IOException {
+        return uploadAs(folder + "/" + UUID.randomUUID(), content, size, contentType);
+    }
+
+    @Override
+    public UploadResult uploadAs(String publicId, InputStream content, long size, String contentType) throws IOException {
+        Path ref = resolve(refs, publicId);
+        Path temp = Files.createTempFile(tmp, "upload-", ".part");
+
+        try {
+            String hash = writeAndHash(content, temp);
+
+            synchronized (blobLock) {
+                Path blob = findBlob(hash).orElse(null);
+                if (blob == null) {
+                    blob = blobPath(hash, extension(temp, contentType));
+                    Files.createDirectories(blob.getParent());
+                    Files.move(temp, blob, StandardCopyOption.ATOMIC_MOVE);
+                }
+
+                Files.createDirectories(ref.getParent());
+                Files.createLink(ref, blob);
+                return new UploadResult(url(blob), publicId);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    @Override
+    public void delete(String publicId) throws IOException {
+        Path ref = resolve(refs, publicId);
+
+        while (true) {
+            if (!Files.exists(ref, LinkOption.NOFOLLOW_LINKS)) {
+                return;
+            }
+
+            // The blob itself is one of the links, so two means this is its last reference.
+            // Refs never change content, so it is hashed before taking the lock rather than under it.
+            String hash;
+            try {
+                hash = linkCount(ref) == 2 ? hash(ref) : null;
+            } catch (NoSuchFileException e) {
+                return;
+            }
+
+            synchronized (blobLock) {
+                if (!Files.exists(ref, LinkOption.NOFOLLOW_LINKS)) {
+                    return;
+                }
+
+                boolean last = linkCount(ref) == 2;
+                if (last && hash == null) {
+                    // Another reference went away meanwhile, so hash again outside the lock
+                    continue;
+                }
+                Path orphan = last ? findBlob(hash).orElse(null) : null;
+
+                Files.delete(ref);
+                if (orphan != null) {
+                    Files.deleteIfExists(orphan);
+                }
+                return;
+            }
+        }
+    }
+
+    @Override
+    public DeleteResult deleteAll(Collection<String> publicIds) {
+        List<String> deleted = new ArrayList<>();
+        List<String> failed = new ArrayList<>();
+
+        for (String publicId : publicIds) {
+            try {
+                delete(publicId);
+                deleted.add(publicId);
+            } catch (IOException | IllegalArgumentException e) {
+                failed.add(publicId);
+            }
+        }
+
+        return new DeleteResult(deleted, failed);
+    }
+
+    // Resolves a path below the blob URL prefix to a stored blob and its hash, for serving
+    public Optional<StoredBlob> findServable(String path) {
+        Path file = root.resolve(BLOBS).resolve(path).normalize();
+        if (!file.startsWith(blobs) || !Files.isRegularFile(file)) {
+            return Optional.empty();
+        }
+
+        Matcher matcher = BLOB_NAME.matcher(file.getFileName().toString());
+        return matcher.matches() ? Optional.of(new StoredBlob(file, matcher.group(1))) : Optional.empty();
+    }
+
+    public String getBaseUrl() {
+        return baseUrl;
+    }
+
+    private String writeAndHash(InputStream content, Path target) throws IOException {
+        MessageDigest digest = HashUtil.newSha256();
+        ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+
+        try (ReadableByteChannel in = Channels.newChannel(content);
+             FileChannel out = FileChannel.open(target, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (in.read(buffer) != -1) {
+                buffer.flip();
+                digest.update(buffer.array(), 0, buffer.limit());
+                while (buffer.hasRemaining()) {
+                    out.write(buffer);
+                }
+                buffer.clear();
+            }
+            // Durable before the rename makes it visible
+            out.force(true);
+        }
+
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private String hash(Path file) throws IOException {
+        try (InputStream content = Files.newInputStream(file)) {
+            MessageDigest digest = HashUtil.newSha256();
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int read;
+            while ((read = content.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        }
+    }
+
+    private Optional<Path> findBlob(String hash) throws IOException {
+        Path shard = shard(hash);
+        if (!Files.isDirectory(shard)) {
+            return Optional.empty();
+        }
+
+        try (DirectoryStream<Path> candidates = Files.newDirectoryStream(shard, hash + "*")) {
+            for (Path candidate : candidates) {
+                return Optional.of(candidate);
+            }
+        }
+        return Optional.empty();
+    }
+
+    private int linkCount(Path file) throws IOException {
+        try {
+            return (Integer) Files.getAttribute(file, "unix:nlink");
+        } catch (UnsupportedOperationException | IllegalArgumentException e) {
+            // Link counts are unknown on this filesystem, so blobs are kept
+            return Integer.MAX_VALUE;
+        }
+    }
+
+    private Path shard(String hash) {
+        return blobs.resolve(hash.substring(0, 2)).resolve(hash.substring(2, 4));
+    }
+
+    private Path blobPath(String hash, String extension) {
+        return shard(hash).resolve(hash + extension);
+    }
+
+    private String url(Path blob) {
+        return baseUrl + "/" + BLOBS + "/" + blobs.relativize(blob).toString().replace('\\', '/');
+    }
+
+    private Path resolve(Path base, String publicId) {
+        Path path = base.resolve(publicId).normalize();
+        if (!path.startsWith(base) || path.equals(base)) {
+            throw new IllegalArgumentException("Invalid public id: " + publicId);
+        }
+        return path;
+    }
+
+    // Sniffed from the bytes first, so identical content always ends up with the same name
+    private String extension(Path file, String contentType) throws IOException {
+        String detected;
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(file))) {
+            detected = URLConnection.guessContentTypeFromStream(in);
+        }
+        String type = detected != null ? detected : contentType;
+        if (type == null || !type.startsWith("image/")) {
+            return "";
+        }
+        String subtype = type.substring("image/".length()).toLowerCase();
+        return subtype.matches("[a-z0-9]+") ? "." + subtype : "";
+    }
+
+    public record StoredBlob(Path file, String hash) {}
+}
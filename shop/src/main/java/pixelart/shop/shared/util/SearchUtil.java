@@ -0,0 +1,35 @@
+package pixelart.shop.shared.util;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
+
+public class SearchUtil {
+
+    private static final char ESCAPE = '\\';
+
+    public static boolean hasKeyword(String keyword) {
+        return keyword != null && !keyword.isBlank();
+    }
+
+    // Rendered as `column ilike '%kw%'`, which the gin_trgm_ops indexes can serve (lower(column) like ... can't)
+    public static Predicate contains(CriteriaBuilder cb, Expression<String> column, String keyword) {
+        return ((HibernateCriteriaBuilder) cb).ilike(column, "%" + escape(keyword.trim()) + "%", ESCAPE);
+    }
+
+    public static Expression<Double> similarity(CriteriaBuilder cb, Expression<String> column, String keyword) {
+        return cb.function("similarity", Double.class, column, cb.literal(keyword.trim()));
+    }
+
+    private static String escape(String keyword) {
+        StringBuilder escaped = new StringBuilder(keyword.length());
+        for (char c : keyword.toCharArray()) {
+            if (c == '%' || c == '_' || c == ESCAPE) {
+                escaped.append(ESCAPE);
+            }
+            escaped.append(c);
+        }
+        return escaped.toString();
+    }
+}
@@ -0,0 +1,12 @@
+-- V10__refresh_token_revoked_at.sql
+-- Revoked refresh tokens are purged a retention window after revocation, not after issue
+ALTER TABLE refresh_tokens ADD COLUMN IF NOT EXISTS revoked_at TIMESTAMP;
+
+-- The revocation time of older rows is unknown, so their window starts now
+UPDATE refresh_tokens
+SET revoked_at = now()
+WHERE is_revoked = true AND revoked_at IS NULL;
+
+CREATE INDEX IF NOT EXISTS idx_refresh_tokens_revoked_at
+    ON refresh_tokens (revoked_at)
+    WHERE is_revoked = true;
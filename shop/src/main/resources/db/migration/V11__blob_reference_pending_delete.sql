@@ -0,0 +1,4 @@
+-- V11__blob_reference_pending_delete.sql
+-- The last reference to a stored object is kept until the object is deleted from storage,
+-- so a failed delete is retried on the object instead of the reference id
+ALTER TABLE blob_references ADD COLUMN IF NOT EXISTS pending_delete_id VARCHAR(255);
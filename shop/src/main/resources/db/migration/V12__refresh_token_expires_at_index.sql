@@ -0,0 +1,5 @@
+-- V12__refresh_token_expires_at_index.sql
+-- Each purge chunk finds expired rows through this index and revoked ones through
+-- idx_refresh_tokens_revoked_at (V10), instead of scanning the whole table
+CREATE INDEX IF NOT EXISTS idx_refresh_tokens_expires_at
+    ON refresh_tokens (expires_at);
@@ -0,0 +1,26 @@
+-- V13__sprite_search_status.sql
+-- Sprites that are still processing or failed are projected too, so their owner can list and trash them;
+-- public listings filter on status
+ALTER TABLE sprite_search ADD COLUMN IF NOT EXISTS status VARCHAR(20) NOT NULL DEFAULT 'READY';
+ALTER TABLE sprite_search ALTER COLUMN image_url DROP NOT NULL;
+
+UPDATE sprite_search ss
+SET status = s.status
+FROM sprites s
+WHERE s.id = ss.sprite_id AND ss.status <> s.status;
+
+INSERT INTO sprite_search (sprite_id, name, slug, image_url, status, category_ids, created_by, deleted_at, created_at)
+SELECT s.id,
+       s.name,
+       s.slug,
+       s.image_url,
+       s.status,
+       COALESCE(array_agg(sc.category_id) FILTER (WHERE sc.category_id IS NOT NULL), '{}'),
+       s.created_by,
+       s.deleted_at,
+       s.created_at
+FROM sprites s
+LEFT JOIN sprite_categories sc ON sc.sprite_id = s.id
+WHERE s.status <> 'READY'
+GROUP BY s.id
+ON CONFLICT (sprite_id) DO NOTHING;
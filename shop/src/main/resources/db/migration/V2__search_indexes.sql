@@ -0,0 +1,17 @@
+-- V2__search_indexes.sql
+-- Trigram indexes for keyword search (ILIKE '%kw%' and similarity() ranking)
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS idx_sprite_name_trgm
+    ON sprites USING GIN (name gin_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS idx_asset_pack_name_trgm
+    ON asset_pack USING GIN (name gin_trgm_ops);
+
+-- Keyword search ORs name and description, both sides need an index for a BitmapOr
+CREATE INDEX IF NOT EXISTS idx_asset_pack_description_trgm
+    ON asset_pack USING GIN (description gin_trgm_ops);
+
+-- Category filter is an EXISTS probe on the join table
+CREATE INDEX IF NOT EXISTS idx_sprite_category_composite
+    ON sprite_categories (category_id, sprite_id);
@@ -0,0 +1,49 @@
+-- V3__sprite_search.sql
+-- Flattened read model for sprite listings (maintained by SpriteSearchProjector)
+CREATE TABLE IF NOT EXISTS sprite_search (
+    sprite_id    UUID PRIMARY KEY,
+    name         VARCHAR(255) NOT NULL,
+    slug         VARCHAR(255) NOT NULL,
+    image_url    VARCHAR(500) NOT NULL,
+    category_ids UUID[]       NOT NULL,
+    created_by   UUID         NOT NULL,
+    deleted_at   TIMESTAMP,
+    created_at   TIMESTAMP    NOT NULL
+);
+
+-- Category filter (category_ids && :ids)
+CREATE INDEX IF NOT EXISTS idx_sprite_search_category_ids
+    ON sprite_search USING GIN (category_ids);
+
+-- Keyword search
+CREATE INDEX IF NOT EXISTS idx_sprite_search_name_trgm
+    ON sprite_search USING GIN (name gin_trgm_ops);
+
+-- Default listing order and keyset pagination
+CREATE INDEX IF NOT EXISTS idx_sprite_search_active_created_at
+    ON sprite_search (created_at DESC, sprite_id DESC)
+    WHERE deleted_at IS NULL;
+
+CREATE INDEX IF NOT EXISTS idx_sprite_search_active_name
+    ON sprite_search (name, sprite_id)
+    WHERE deleted_at IS NULL;
+
+-- Per-user listing
+CREATE INDEX IF NOT EXISTS idx_sprite_search_active_created_by
+    ON sprite_search (created_by, created_at DESC)
+    WHERE deleted_at IS NULL;
+
+-- Backfill from the normalized tables
+INSERT INTO sprite_search (sprite_id, name, slug, image_url, category_ids, created_by, deleted_at, created_at)
+SELECT s.id,
+       s.name,
+       s.slug,
+       s.image_url,
+       COALESCE(array_agg(sc.category_id) FILTER (WHERE sc.category_id IS NOT NULL), '{}'),
+       s.created_by,
+       s.deleted_at,
+       s.created_at
+FROM sprites s
+LEFT JOIN sprite_categories sc ON sc.sprite_id = s.id
+GROUP BY s.id
+ON CONFLICT (sprite_id) DO NOTHING;
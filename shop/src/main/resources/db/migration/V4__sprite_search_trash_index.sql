@@ -0,0 +1,5 @@
+-- V4__sprite_search_trash_index.sql
+-- Trash listing reads sprite_search ordered by deleted_at
+CREATE INDEX IF NOT EXISTS idx_sprite_search_deleted_at
+    ON sprite_search (deleted_at DESC)
+    WHERE deleted_at IS NOT NULL;
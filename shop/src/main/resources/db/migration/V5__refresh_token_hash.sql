@@ -0,0 +1,22 @@
+-- V5__refresh_token_hash.sql
+-- Refresh tokens are looked up by a fixed-width SHA-256 digest instead of the raw JWT
+ALTER TABLE refresh_tokens ADD COLUMN IF NOT EXISTS token_hash bytea;
+
+DO $$
+BEGIN
+    IF EXISTS (
+        SELECT 1 FROM information_schema.columns
+        WHERE table_name = 'refresh_tokens' AND column_name = 'token'
+    ) THEN
+        UPDATE refresh_tokens
+        SET token_hash = sha256(convert_to(token, 'UTF8'))
+        WHERE token_hash IS NULL;
+
+        ALTER TABLE refresh_tokens DROP COLUMN token;
+    END IF;
+END $$;
+
+ALTER TABLE refresh_tokens ALTER COLUMN token_hash SET NOT NULL;
+
+CREATE UNIQUE INDEX IF NOT EXISTS ux_refresh_tokens_token_hash
+    ON refresh_tokens (token_hash);
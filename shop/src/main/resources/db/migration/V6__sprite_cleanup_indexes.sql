@@ -0,0 +1,11 @@
+-- V6__sprite_cleanup_indexes.sql
+-- Trash cleanup walks expired sprites by id and deletes their join rows in batches
+CREATE INDEX IF NOT EXISTS idx_sprites_trashed_id
+    ON sprites (id)
+    WHERE deleted_at IS NOT NULL;
+
+CREATE INDEX IF NOT EXISTS idx_sprite_categories_sprite
+    ON sprite_categories (sprite_id);
+
+CREATE INDEX IF NOT EXISTS idx_asset_pack_sprites_sprite
+    ON asset_pack_sprites (sprite_id);
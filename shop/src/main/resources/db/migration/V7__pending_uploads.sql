@@ -0,0 +1,10 @@
+-- V7__pending_uploads.sql
+-- Images uploaded ahead of the transaction that references them; leftovers are reconciled by age
+CREATE TABLE IF NOT EXISTS pending_uploads (
+    id         UUID PRIMARY KEY,
+    public_id  VARCHAR(255) NOT NULL UNIQUE,
+    created_at TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS idx_pending_uploads_created_at
+    ON pending_uploads (created_at);
@@ -0,0 +1,6 @@
+-- V8__sprite_status.sql
+-- Sprites created asynchronously have no image until the upload finishes
+ALTER TABLE sprites ALTER COLUMN image_url DROP NOT NULL;
+ALTER TABLE sprites ALTER COLUMN cloudinary_id DROP NOT NULL;
+
+ALTER TABLE sprites ADD COLUMN IF NOT EXISTS status varchar(20) NOT NULL DEFAULT 'READY';
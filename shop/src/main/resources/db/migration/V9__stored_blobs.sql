@@ -0,0 +1,18 @@
+-- V9__stored_blobs.sql
+-- Content-hash deduplication in front of file storage: one stored object per distinct content,
+-- shared by every public id that uploaded the same bytes
+CREATE TABLE IF NOT EXISTS stored_blobs (
+    hash       VARCHAR(64) PRIMARY KEY,
+    public_id  VARCHAR(255) NOT NULL UNIQUE,
+    url        VARCHAR(500) NOT NULL,
+    ref_count  INTEGER NOT NULL,
+    created_at TIMESTAMP
+);
+
+CREATE TABLE IF NOT EXISTS blob_references (
+    public_id VARCHAR(255) PRIMARY KEY,
+    hash      VARCHAR(64) NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_blob_references_hash
+    ON blob_references (hash);
@@ -0,0 +1,137 @@
+package pixelart.shop.features.auth;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.springframework.data.redis.core.SetOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import pixelart.shop.shared.util.HashUtil;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RedisRefreshTokenStoreTest {
+
+    private static final String TOKEN = "refresh-token";
+    private static final String DIGEST = HashUtil.sha256Hex(TOKEN);
+    private static final String TOKEN_KEY = "auth:refresh:" + DIGEST;
+
+    private final UUID userId = UUID.randomUUID();
+    private final String familyKey = "auth:refresh-family:" + userId;
+
+    private StringRedisTemplate redisTemplate;
+    private SetOperations<String, String> sets;
+    private ValueOperations<String, String> values;
+    private RefreshTokenStore legacyStore;
+    private RedisRefreshTokenStore store;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        redisTemplate = mock(StringRedisTemplate.class);
+        sets = mock(SetOperations.class);
+        values = mock(ValueOperations.class);
+        when(redisTemplate.opsForSet()).thenReturn(sets);
+        when(redisTemplate.opsForValue()).thenReturn(values);
+        legacyStore = mock(RefreshTokenStore.class);
+        store = new RedisRefreshTokenStore(redisTemplate, legacyStore, 60_000);
+    }
+
+    @Test
+    void saveStoresDigestUnderTokenAndFamilyKeys() {
+        store.save(userId, TOKEN);
+
+        verify(redisTemplate).execute(
+                any(RedisScript.class),
+                eq(List.of(TOKEN_KEY, familyKey)),
+                eq(userId.toString()), eq(DIGEST), eq("60000")
+        );
+    }
+
+    @Test
+    void consumeRotatesLiveTokenAndDropsItFromFamily() {
+        consumeReturns(userId.toString());
+
+        RefreshTokenStore.Consumed consumed = store.consume(TOKEN);
+
+        assertThat(consumed.status()).isEqualTo(RefreshTokenStore.Status.ROTATED);
+        assertThat(consumed.userId()).isEqualTo(userId);
+        verify(sets).remove(familyKey, DIGEST);
+    }
+
+    @Test
+    void consumeOfRotatedTokenIsReuse() {
+        consumeReturns("!" + userId);
+
+        RefreshTokenStore.Consumed consumed = store.consume(TOKEN);
+
+        assertThat(consumed.status()).isEqualTo(RefreshTokenStore.Status.REUSED);
+        assertThat(consumed.userId()).isEqualTo(userId);
+        verify(sets, never()).remove(anyString(), any());
+    }
+
+    @Test
+    void consumeOfMissingTokenFallsBackToLegacyStore() {
+        consumeReturns(null);
+        RefreshTokenStore.Consumed legacy = new RefreshTokenStore.Consumed(RefreshTokenStore.Status.ROTATED, userId);
+        when(legacyStore.consume(TOKEN)).thenReturn(legacy);
+
+        assertThat(store.consume(TOKEN)).isEqualTo(legacy);
+    }
+
+    @Test
+    void consumeOfKnownTokenSkipsLegacyStore() {
+        consumeReturns(userId.toString());
+
+        store.consume(TOKEN);
+
+        verify(legacyStore, never()).consume(anyString());
+    }
+
+    @Test
+    void revokeOfMissingTokenFallsBackToLegacyStore() {
+        store.revoke(TOKEN);
+
+        verify(legacyStore).revoke(TOKEN);
+    }
+
+    @Test
+    void revokeRemovesRotatedTokenFromItsFamily() {
+        when(values.getAndDelete(TOKEN_KEY)).thenReturn("!" + userId);
+
+        store.revoke(TOKEN);
+
+        verify(sets).remove(familyKey, DIGEST);
+    }
+
+    @Test
+    void revokeAllDeletesFamilyAndEveryLiveToken() {
+        when(sets.members(familyKey)).thenReturn(Set.of("a", "b"));
+
+        store.revokeAll(userId);
+
+        verify(redisTemplate).delete(ArgumentMatchers.<List<String>>argThat(keys ->
+                keys.size() == 3
+                        && keys.get(0).equals(familyKey)
+                        && keys.containsAll(List.of("auth:refresh:a", "auth:refresh:b"))
+        ));
+        verify(legacyStore).revokeAll(userId);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void consumeReturns(String value) {
+        when(redisTemplate.execute(any(RedisScript.class), eq(List.of(TOKEN_KEY)))).thenReturn(value);
+    }
+}
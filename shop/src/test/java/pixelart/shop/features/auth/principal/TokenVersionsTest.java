@@ -0,0 +1,71 @@
+package pixelart.shop.features.auth.principal;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import pixelart.shop.features.user.entity.User;
+import pixelart.shop.features.user.repository.UserRepository;
+import pixelart.shop.shared.infrastructure.cache.CacheInvalidationBus;
+
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TokenVersionsTest {
+
+    private static final String KEY = "auth:token-versions";
+
+    private final UUID userId = UUID.randomUUID();
+
+    private HashOperations<String, Object, Object> hash;
+    private UserRepository userRepository;
+    private TokenVersions tokenVersions;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+        hash = mock(HashOperations.class);
+        when(redisTemplate.opsForHash()).thenReturn(hash);
+        userRepository = mock(UserRepository.class);
+        tokenVersions = new TokenVersions(redisTemplate, mock(CacheInvalidationBus.class), userRepository);
+    }
+
+    @Test
+    void usesVersionFromRedis() {
+        when(hash.get(KEY, userId.toString())).thenReturn("3");
+
+        assertThat(tokenVersions.isCurrent(principal(2))).isFalse();
+        assertThat(tokenVersions.isCurrent(principal(3))).isTrue();
+        verify(userRepository, never()).findTokenVersionById(any());
+    }
+
+    @Test
+    void fallsBackToDatabaseOnMissAndReseeds() {
+        when(userRepository.findTokenVersionById(userId)).thenReturn(Optional.of(4L));
+
+        assertThat(tokenVersions.isCurrent(principal(3))).isFalse();
+        verify(hash).putIfAbsent(KEY, userId.toString(), "4");
+    }
+
+    @Test
+    void fallsBackToDatabaseWhenRedisIsDown() {
+        when(hash.get(KEY, userId.toString())).thenThrow(new RedisConnectionFailureException("down"));
+        when(userRepository.findTokenVersionById(userId)).thenReturn(Optional.of(1L));
+
+        assertThat(tokenVersions.isCurrent(principal(1))).isTrue();
+        assertThat(tokenVersions.isCurrent(principal(0))).isFalse();
+    }
+
+    private AuthenticatedUser principal(long version) {
+        return new AuthenticatedUser(userId, "user@example.com", User.Role.USER, version);
+    }
+}
@@ -0,0 +1,73 @@
+package pixelart.shop.features.sprite.cache;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SpriteCacheEvictionsTest {
+
+    private final UUID purged = UUID.randomUUID();
+    private final UUID untouched = UUID.randomUUID();
+
+    private ConcurrentMapCacheManager cacheManager;
+    private SpriteCacheEvictions evictions;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager = new ConcurrentMapCacheManager("sprites:detail", "asset-packs", "asset-packs:detail");
+        evictions = new SpriteCacheEvictions(cacheManager);
+        cache("sprites:detail").put(purged, "sprite");
+        cache("sprites:detail").put(untouched, "sprite");
+        cache("asset-packs:detail").put(purged, "pack");
+        cache("asset-packs:detail").put(untouched, "pack");
+        cache("asset-packs").put("page-0", "listing");
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void evictsOnlyGivenSpritesAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        evictions.evictDetailsAfterCommit(List.of(purged));
+        assertThat(cache("sprites:detail").get(purged)).isNotNull();
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertThat(cache("sprites:detail").get(purged)).isNull();
+        assertThat(cache("sprites:detail").get(untouched)).isNotNull();
+    }
+
+    @Test
+    void evictsAffectedPacksAndTheirListing() {
+        evictions.evictAssetPacksAfterCommit(List.of(purged));
+
+        assertThat(cache("asset-packs:detail").get(purged)).isNull();
+        assertThat(cache("asset-packs:detail").get(untouched)).isNotNull();
+        assertThat(cache("asset-packs").get("page-0")).isNull();
+    }
+
+    @Test
+    void leavesPacksAloneWhenNoneWereAffected() {
+        evictions.evictAssetPacksAfterCommit(List.of());
+
+        assertThat(cache("asset-packs").get("page-0")).isNotNull();
+    }
+
+    private Cache cache(String name) {
+        return cacheManager.getCache(name);
+    }
+}
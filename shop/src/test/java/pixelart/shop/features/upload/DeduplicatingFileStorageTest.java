@@ -0,0 +1,193 @@
+package pixelart.shop.features.upload;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import pixelart.shop.features.upload.entity.BlobReference;
+import pixelart.shop.features.upload.entity.StoredBlob;
+import pixelart.shop.features.upload.repository.BlobReferenceRepository;
+import pixelart.shop.features.upload.repository.StoredBlobRepository;
+import pixelart.shop.shared.infrastructure.storage.DeleteResult;
+import pixelart.shop.shared.infrastructure.storage.FileStorage;
+import pixelart.shop.shared.infrastructure.storage.UploadResult;
+import pixelart.shop.shared.util.HashUtil;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class DeduplicatingFileStorageTest {
+
+    private static final byte[] CONTENT = "pixel".getBytes(StandardCharsets.UTF_8);
+    private static final String HASH = HexFormat.of().formatHex(HashUtil.newSha256().digest(CONTENT));
+
+    private FileStorage backend;
+    private StoredBlobRepository storedBlobRepository;
+    private BlobReferenceRepository blobReferenceRepository;
+    private DeduplicatingFileStorage storage;
+
+    @BeforeEach
+    void setUp() {
+        backend = mock(FileStorage.class);
+        storedBlobRepository = mock(StoredBlobRepository.class);
+        blobReferenceRepository = mock(BlobReferenceRepository.class);
+        storage = new DeduplicatingFileStorage(
+                backend, storedBlobRepository, blobReferenceRepository, mock(PlatformTransactionManager.class)
+        );
+    }
+
+    @Test
+    void reusesStoredContentWithoutUploading() throws IOException {
+        when(storedBlobRepository.findById(HASH)).thenReturn(Optional.of(blob("sprites/first", 1)));
+        when(storedBlobRepository.acquire(HASH)).thenReturn(1);
+
+        UploadResult result = storage.upload(CONTENT, "sprites");
+
+        assertThat(result.url()).isEqualTo(url("sprites/first"));
+        assertThat(result.publicId()).startsWith("sprites/").isNotEqualTo("sprites/first");
+        verify(backend, never()).upload(any(byte[].class), anyString());
+        verify(blobReferenceRepository).save(any(BlobReference.class));
+    }
+
+    @Test
+    void registersNewContent() throws IOException {
+        when(storedBlobRepository.findById(HASH))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(blob("sprites/new", 1)));
+        when(backend.upload(CONTENT, "sprites")).thenReturn(new UploadResult(url("sprites/new"), "sprites/new"));
+
+        UploadResult result = storage.upload(CONTENT, "sprites");
+
+        assertThat(result.publicId()).isEqualTo("sprites/new");
+        verify(storedBlobRepository).register(HASH, "sprites/new", url("sprites/new"));
+        verify(backend, never()).delete(anyString());
+    }
+
+    @Test
+    void deletesLosingCopyOfConcurrentUpload() throws IOException {
+        // Nothing was stored at lookup time, but a concurrent upload of the same bytes registered first
+        when(storedBlobRepository.findById(HASH))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(blob("sprites/winner", 2)));
+        when(backend.upload(CONTENT, "sprites")).thenReturn(new UploadResult(url("sprites/loser"), "sprites/loser"));
+
+        UploadResult result = storage.upload(CONTENT, "sprites");
+
+        assertThat(result.publicId()).isEqualTo("sprites/loser");
+        assertThat(result.url()).isEqualTo(url("sprites/winner"));
+        verify(backend).delete("sprites/loser");
+    }
+
+    @Test
+    void keepsObjectWhileOtherReferencesRemain() throws IOException {
+        when(blobReferenceRepository.findById("sprites/b")).thenReturn(Optional.of(reference("sprites/b")));
+        when(storedBlobRepository.findById(HASH)).thenReturn(Optional.of(blob("sprites/a", 1)));
+
+        storage.delete("sprites/b");
+
+        verify(storedBlobRepository).release(HASH, 1);
+        verify(blobReferenceRepository).deleteById("sprites/b");
+        verify(backend, never()).delete(anyString());
+    }
+
+    @Test
+    void deletesStoredObjectWithLastReference() throws IOException {
+        BlobReference reference = reference("sprites/b");
+        StoredBlob blob = blob("sprites/a", 0);
+        when(blobReferenceRepository.findById("sprites/b")).thenReturn(Optional.of(reference));
+        when(storedBlobRepository.findById(HASH)).thenReturn(Optional.of(blob));
+
+        storage.delete("sprites/b");
+
+        verify(storedBlobRepository).delete(blob);
+        verify(backend).delete("sprites/a");
+        verify(blobReferenceRepository).deleteReleased(List.of("sprites/b"));
+    }
+
+    @Test
+    void retriesFailedDeleteOnStoredObject() throws IOException {
+        BlobReference reference = reference("sprites/b");
+        when(blobReferenceRepository.findById("sprites/b")).thenReturn(Optional.of(reference));
+        when(storedBlobRepository.findById(HASH)).thenReturn(Optional.of(blob("sprites/a", 0)));
+        when(backend.deleteAll(objectIds("sprites/a")))
+                .thenReturn(new DeleteResult(List.of(), List.of("sprites/a")))
+                .thenReturn(new DeleteResult(List.of("sprites/a"), List.of()));
+
+        DeleteResult first = storage.deleteAll(List.of("sprites/b"));
+
+        assertThat(first.failed()).containsExactly("sprites/b");
+        assertThat(reference.getPendingDeleteId()).isEqualTo("sprites/a");
+        verify(blobReferenceRepository, never()).deleteReleased(any());
+
+        DeleteResult retry = storage.deleteAll(List.of("sprites/b"));
+
+        assertThat(retry.deleted()).containsExactly("sprites/b");
+        verify(storedBlobRepository, times(1)).release(HASH, 1);
+        verify(backend, times(2)).deleteAll(objectIds("sprites/a"));
+        verify(blobReferenceRepository).deleteReleased(List.of("sprites/b"));
+    }
+
+    @Test
+    void keepsReferenceWhenSingleDeleteFails() throws IOException {
+        BlobReference reference = reference("sprites/b");
+        when(blobReferenceRepository.findById("sprites/b")).thenReturn(Optional.of(reference));
+        when(storedBlobRepository.findById(HASH)).thenReturn(Optional.of(blob("sprites/a", 0)));
+        doThrow(new IOException("down")).when(backend).delete("sprites/a");
+
+        assertThatThrownBy(() -> storage.delete("sprites/b")).isInstanceOf(IOException.class);
+
+        assertThat(reference.getPendingDeleteId()).isEqualTo("sprites/a");
+        verify(blobReferenceRepository, never()).deleteReleased(any());
+    }
+
+    @Test
+    void deletesLegacyIdDirectly() throws IOException {
+        when(blobReferenceRepository.findById("sprites/legacy")).thenReturn(Optional.empty());
+        when(storedBlobRepository.findByPublicId("sprites/legacy")).thenReturn(Optional.empty());
+
+        storage.delete("sprites/legacy");
+
+        verify(backend).delete("sprites/legacy");
+    }
+
+    @Test
+    void keepsObjectBehindLiveBlob() throws IOException {
+        when(blobReferenceRepository.findById("sprites/a")).thenReturn(Optional.empty());
+        when(storedBlobRepository.findByPublicId("sprites/a")).thenReturn(Optional.of(blob("sprites/a", 1)));
+
+        storage.delete("sprites/a");
+
+        verify(backend, never()).delete(anyString());
+    }
+
+    private Collection<String> objectIds(String... ids) {
+        return argThat(actual -> actual != null && List.copyOf(actual).equals(List.of(ids)));
+    }
+
+    private StoredBlob blob(String publicId, int refCount) {
+        return StoredBlob.builder().hash(HASH).publicId(publicId).url(url(publicId)).refCount(refCount).build();
+    }
+
+    private BlobReference reference(String publicId) {
+        return BlobReference.builder().publicId(publicId).hash(HASH).build();
+    }
+
+    private String url(String publicId) {
+        return "https://cdn.example.com/" + publicId;
+    }
+}
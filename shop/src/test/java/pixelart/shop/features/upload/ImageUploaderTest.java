@@ -0,0 +1,91 @@
+package pixelart.shop.features.upload;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.springframework.mock.web.MockMultipartFile;
+import pixelart.shop.features.upload.entity.PendingUpload;
+import pixelart.shop.features.upload.repository.PendingUploadRepository;
+import pixelart.shop.shared.infrastructure.storage.FileStorage;
+import pixelart.shop.shared.infrastructure.storage.UploadResult;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ImageUploaderTest {
+
+    private final MockMultipartFile file = new MockMultipartFile("image", "a.png", "image/png", new byte[]{1, 2, 3});
+
+    private FileStorage fileStorage;
+    private PendingUploadRepository pendingUploadRepository;
+    private ImageUploader imageUploader;
+
+    @BeforeEach
+    void setUp() {
+        fileStorage = mock(FileStorage.class);
+        pendingUploadRepository = mock(PendingUploadRepository.class);
+        imageUploader = new ImageUploader(fileStorage, pendingUploadRepository);
+    }
+
+    @Test
+    void reservesPublicIdBeforeUploading() throws IOException {
+        when(fileStorage.uploadAs(anyString(), any(InputStream.class), anyLong(), anyString()))
+                .thenAnswer(invocation -> new UploadResult("https://cdn/a.png", invocation.getArgument(0)));
+
+        UploadResult result = imageUploader.stage(file, "sprites");
+
+        ArgumentCaptor<PendingUpload> reserved = ArgumentCaptor.forClass(PendingUpload.class);
+        InOrder order = inOrder(pendingUploadRepository, fileStorage);
+        order.verify(pendingUploadRepository).save(reserved.capture());
+        order.verify(fileStorage).uploadAs(eq(result.publicId()), any(InputStream.class), eq(3L), eq("image/png"));
+        assertThat(reserved.getValue().getPublicId()).isEqualTo(result.publicId()).startsWith("sprites/");
+    }
+
+    @Test
+    void discardsReservationWhenUploadFails() throws IOException {
+        when(fileStorage.uploadAs(anyString(), any(InputStream.class), anyLong(), anyString()))
+                .thenThrow(new IOException("down"));
+
+        assertThatThrownBy(() -> imageUploader.stage(file, "sprites")).isInstanceOf(IOException.class);
+
+        ArgumentCaptor<PendingUpload> reserved = ArgumentCaptor.forClass(PendingUpload.class);
+        verify(pendingUploadRepository).save(reserved.capture());
+        String publicId = reserved.getValue().getPublicId();
+        verify(fileStorage).delete(publicId);
+        verify(pendingUploadRepository).deleteByPublicId(publicId);
+    }
+
+    @Test
+    void discardIsBestEffort() throws IOException {
+        doThrow(new IOException("down")).when(fileStorage).delete("sprites/a");
+
+        imageUploader.discard("sprites/a");
+
+        // Left for PendingUploadReconciler
+        verify(pendingUploadRepository, never()).deleteByPublicId("sprites/a");
+    }
+
+    @Test
+    void confirmDropsReservation() {
+        imageUploader.confirm("sprites/a");
+        imageUploader.confirmAll(List.of("sprites/b", "sprites/c"));
+
+        verify(pendingUploadRepository).deleteByPublicId("sprites/a");
+        verify(pendingUploadRepository).deleteByPublicIdIn(List.of("sprites/b", "sprites/c"));
+    }
+}
@@ -0,0 +1,93 @@
+package pixelart.shop.shared.infrastructure.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+class CacheInvalidationBusTest {
+
+    private StringRedisTemplate redisTemplate;
+    private CacheInvalidationBus sender;
+    private CacheInvalidationBus receiver;
+    private List<String> received;
+
+    @BeforeEach
+    void setUp() {
+        redisTemplate = mock(StringRedisTemplate.class);
+        sender = new CacheInvalidationBus(redisTemplate);
+        receiver = new CacheInvalidationBus(redisTemplate);
+        received = new ArrayList<>();
+        sender.register("sprites", received::add);
+        receiver.register("sprites", received::add);
+    }
+
+    @Test
+    void deliversEvictedKeyToOtherNodes() {
+        sender.publishEvict("sprites", "42");
+
+        receiver.onMessage(lastPublished(), null);
+
+        assertThat(received).containsExactly("42");
+    }
+
+    @Test
+    void deliversClearAsNullKey() {
+        sender.publishClear("sprites");
+
+        receiver.onMessage(lastPublished(), null);
+
+        assertThat(received).containsExactly((String) null);
+    }
+
+    @Test
+    void ignoresOwnMessages() {
+        sender.publishEvict("sprites", "42");
+
+        sender.onMessage(lastPublished(), null);
+
+        assertThat(received).isEmpty();
+    }
+
+    @Test
+    void ignoresUnknownCachesAndMalformedMessages() {
+        sender.publishEvict("other", "42");
+        receiver.onMessage(lastPublished(), null);
+        receiver.onMessage(message("garbage"), null);
+
+        assertThat(received).isEmpty();
+    }
+
+    @Test
+    void publishFailureDoesNotPropagate() {
+        doThrow(new IllegalStateException("down")).when(redisTemplate).convertAndSend(anyString(), anyString());
+
+        sender.publishEvict("sprites", "42");
+    }
+
+    private DefaultMessage lastPublished() {
+        ArgumentCaptor<String> body = ArgumentCaptor.forClass(String.class);
+        verify(redisTemplate, atLeastOnce()).convertAndSend(eq(CacheInvalidationBus.CHANNEL), body.capture());
+        return message(body.getValue());
+    }
+
+    private DefaultMessage message(String body) {
+        return new DefaultMessage(
+                CacheInvalidationBus.CHANNEL.getBytes(StandardCharsets.UTF_8),
+                body.getBytes(StandardCharsets.UTF_8)
+        );
+    }
+}
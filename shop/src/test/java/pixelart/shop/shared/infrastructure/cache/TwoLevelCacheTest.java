@@ -0,0 +1,128 @@
+package pixelart.shop.shared.infrastructure.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+
+class TwoLevelCacheTest {
+
+    private com.github.benmanes.caffeine.cache.Cache<String, CachedValue> local;
+    private Cache remote;
+    private CacheInvalidationBus bus;
+    private TwoLevelCache cache;
+
+    @BeforeEach
+    void setUp() {
+        local = spy(Caffeine.newBuilder().<String, CachedValue>build());
+        remote = spy(new ConcurrentMapCache("remote"));
+        bus = mock(CacheInvalidationBus.class);
+        cache = new TwoLevelCache("test", local, remote, bus, null, Duration.ofSeconds(1), Duration.ofMinutes(10), 0, null);
+    }
+
+    @Test
+    void loadsOnceAndServesFromBothLevels() {
+        AtomicInteger loads = new AtomicInteger();
+
+        assertThat(cache.get("k", () -> "v" + loads.incrementAndGet())).isEqualTo("v1");
+        assertThat(cache.get("k", () -> "v" + loads.incrementAndGet())).isEqualTo("v1");
+
+        assertThat(loads).hasValue(1);
+        assertThat(local.getIfPresent("k")).isNotNull();
+        assertThat(remote.get("k")).isNotNull();
+    }
+
+    @Test
+    void fillsLocalFromRemoteOnLocalMiss() {
+        cache.put("k", "v");
+        local.invalidateAll();
+
+        assertThat(cache.get("k", () -> "reloaded")).isEqualTo("v");
+        assertThat(local.getIfPresent("k").getValue()).isEqualTo("v");
+    }
+
+    @Test
+    void coalescesConcurrentMissesOnOneNode() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+
+        try {
+            List<Future<Object>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(pool.submit(() -> cache.get("k", () -> {
+                    loads.incrementAndGet();
+                    release.await(5, TimeUnit.SECONDS);
+                    return "v";
+                })));
+            }
+            Thread.sleep(100);
+            release.countDown();
+
+            for (Future<Object> result : results) {
+                assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("v");
+            }
+            assertThat(loads).hasValue(1);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void evictsRemoteBeforeLocalThenBroadcasts() {
+        cache.put("k", "v");
+
+        cache.evict("k");
+
+        InOrder order = inOrder(remote, local, bus);
+        order.verify(remote).evict("k");
+        order.verify(local).invalidate("k");
+        order.verify(bus).publishEvict("test", "k");
+        assertThat(cache.get("k")).isNull();
+    }
+
+    @Test
+    void clearsRemoteBeforeLocalThenBroadcasts() {
+        cache.put("a", "1");
+        cache.put("b", "2");
+
+        cache.clear();
+
+        InOrder order = inOrder(remote, local, bus);
+        order.verify(remote).clear();
+        order.verify(local).invalidateAll();
+        order.verify(bus).publishClear("test");
+        assertThat(cache.get("a")).isNull();
+        assertThat(cache.get("b")).isNull();
+    }
+
+    @Test
+    void remoteInvalidationOnlyDropsLocalCopy() {
+        cache.put("k", "v");
+
+        cache.evictLocal("k");
+
+        assertThat(local.getIfPresent("k")).isNull();
+        assertThat(remote.get("k")).isNotNull();
+        verify(bus, never()).publishEvict("test", "k");
+    }
+}
@@ -0,0 +1,137 @@
+package pixelart.shop.shared.infrastructure.storage;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LocalFileStorageTest {
+
+    private static final byte[] CONTENT = "pixel".getBytes(StandardCharsets.UTF_8);
+
+    @TempDir
+    Path root;
+
+    private LocalFileStorage storage;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        storage = new LocalFileStorage(root.toString(), "/files");
+    }
+
+    @Test
+    void identicalUploadsShareOneBlob() throws IOException {
+        UploadResult first = storage.upload(CONTENT, "sprites");
+        UploadResult second = storage.upload(CONTENT, "sprites");
+
+        assertThat(first.publicId()).isNotEqualTo(second.publicId());
+        assertThat(first.url()).isEqualTo(second.url()).startsWith("/files/blobs/");
+        assertThat(blobs()).hasSize(1);
+        assertThat(Files.readAllBytes(root.resolve("refs").resolve(second.publicId()))).isEqualTo(CONTENT);
+    }
+
+    @Test
+    void blobIsRemovedWithItsLastReference() throws IOException {
+        UploadResult first = storage.upload(CONTENT, "sprites");
+        UploadResult second = storage.upload(CONTENT, "sprites");
+
+        storage.delete(first.publicId());
+        assertThat(blobs()).hasSize(1);
+        assertThat(servable(second)).isPresent();
+
+        storage.delete(second.publicId());
+        assertThat(blobs()).isEmpty();
+        assertThat(servable(second)).isEmpty();
+    }
+
+    @Test
+    void concurrentDeletesStillRemoveTheBlob() throws Exception {
+        List<String> publicIds = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            publicIds.add(storage.upload(CONTENT, "sprites").publicId());
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> deletes = new ArrayList<>();
+            for (String publicId : publicIds) {
+                deletes.add(executor.submit(() -> {
+                    storage.delete(publicId);
+                    return null;
+                }));
+            }
+            for (Future<?> delete : deletes) {
+                delete.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertThat(blobs()).isEmpty();
+    }
+
+    @Test
+    void deletingUnknownIdIsNoOp() throws IOException {
+        UploadResult stored = storage.upload(CONTENT, "sprites");
+
+        storage.delete("sprites/missing");
+
+        assertThat(servable(stored)).isPresent();
+    }
+
+    @Test
+    void servableBlobCarriesItsHash() throws IOException {
+        UploadResult stored = storage.uploadAs("avatars/a", new ByteArrayInputStream(CONTENT), CONTENT.length, "image/png");
+
+        LocalFileStorage.StoredBlob blob = servable(stored).orElseThrow();
+
+        assertThat(blob.file().getFileName().toString()).startsWith(blob.hash());
+        assertThat(Files.readAllBytes(blob.file())).isEqualTo(CONTENT);
+    }
+
+    @Test
+    void rejectsPathsOutsideTheStore() throws IOException {
+        Files.writeString(root.resolve("secret.txt"), "secret");
+
+        assertThatThrownBy(() -> storage.uploadAs("../escape", new ByteArrayInputStream(CONTENT), CONTENT.length, null))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(storage.findServable("../secret.txt")).isEmpty();
+        assertThat(storage.findServable("../refs")).isEmpty();
+    }
+
+    @Test
+    void deleteAllReportsInvalidIdsAsFailed() throws IOException {
+        UploadResult stored = storage.upload(CONTENT, "sprites");
+
+        DeleteResult result = storage.deleteAll(List.of(stored.publicId(), "../escape"));
+
+        assertThat(result.deleted()).containsExactly(stored.publicId());
+        assertThat(result.failed()).containsExactly("../escape");
+        assertThat(blobs()).isEmpty();
+    }
+
+    private Optional<LocalFileStorage.StoredBlob> servable(UploadResult result) {
+        return storage.findServable(result.url().substring("/files/blobs/".length()));
+    }
+
+    private List<Path> blobs() throws IOException {
+        try (Stream<Path> files = Files.walk(root.resolve("blobs"))) {
+            return files.filter(Files::isRegularFile).toList();
+        }
+    }
+}